@@ -0,0 +1,83 @@
+package com.org.authservice.security;
+
+import com.org.authservice.model.Role;
+import com.org.authservice.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Per-request token verification cost. perRequestBefore replays what the filter used to do for
+// one request with the original HS256 token: extractUsername, then isTokenValid, which parsed the
+// token three times and re-encoded the key each time. verifyUncached is a single RS256 parse with
+// the prepared parser, and verifyCached is the steady state for a token seen recently.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "super-secret-key";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        SigningKeys signingKeys = new SigningKeys(Duration.ofDays(1), 2048, Clock.systemUTC());
+        cached = new JwtService(signingKeys, 86_400_000, Duration.ofMinutes(5), 10_000);
+        uncached = new JwtService(signingKeys, 86_400_000, Duration.ZERO, 0);
+        token = cached.generateToken(User.builder().id(42L).email("bench@example.com").role(Role.USER).build());
+        cached.verify(token);
+        legacyToken = Jwts.builder()
+                .claim("role", "ROLE_USER")
+                .setSubject("bench@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000))
+                .signWith(SignatureAlgorithm.HS256, Base64.getEncoder().encode(SECRET.getBytes()))
+                .compact();
+    }
+
+    @Benchmark
+    public boolean perRequestBefore() {
+        String username = legacyClaims(legacyToken).getSubject();
+        boolean sameUser = legacyClaims(legacyToken).getSubject().equals(username);
+        return sameUser && !legacyClaims(legacyToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .setSigningKey(Base64.getEncoder().encode(SECRET.getBytes()))
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
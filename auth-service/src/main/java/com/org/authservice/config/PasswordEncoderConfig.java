@@ -1,14 +1,58 @@
 package com.org.authservice.config;
 
+import com.org.authservice.security.BcryptStrength;
+import com.org.authservice.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class PasswordEncoderConfig {
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String BCRYPT = "bcrypt";
+
+    // Hashing runs off the request threads on a pool sized to the cores unless configured otherwise.
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                  @Value("${password-hashing.threads:0}") int threads,
+                                                  @Value("${password-hashing.queue-capacity:32}") int queueCapacity,
+                                                  @Value("${password-hashing.max-wait:2s}") Duration maxWait,
+                                                  @Value("${password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                                  @Value("${password-hashing.strength:0}") int strength,
+                                                  @Value("${password-hashing.target-latency:250ms}") Duration targetLatency,
+                                                  @Value("${password-hashing.min-strength:10}") int minStrength,
+                                                  @Value("${password-hashing.max-strength:14}") int maxStrength) {
+        int cost = strength > 0 ? strength : BcryptStrength.calibrate(targetLatency, minStrength, maxStrength);
+        log.info("Hashing passwords with bcrypt cost {} ({})", cost, strength > 0 ? "configured" : "calibrated for " + targetLatency);
+        Gauge.builder("auth.password.hash.cost", () -> cost).register(meterRegistry);
+        return new BoundedPasswordEncoder(delegatingEncoder(cost),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, maxWait, retryAfterSeconds, meterRegistry);
+    }
+
+    // New hashes are stored as {bcrypt}$2a$<cost>$..., and hashes written before the prefix existed
+    // still verify as bcrypt. A hash below the current cost, or without the prefix, reports
+    // upgradeEncoding and is rewritten on the next successful login. Hashes above it are left alone,
+    // so a run that calibrates lower on a slower machine does not weaken stored passwords.
+    private static PasswordEncoder delegatingEncoder(int cost) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return BcryptStrength.of(encodedPassword) < cost;
+            }
+        };
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
-}
\ No newline at end of file
+}
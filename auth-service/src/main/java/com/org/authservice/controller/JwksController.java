@@ -0,0 +1,68 @@
+package com.org.authservice.controller;
+
+import com.org.authservice.dto.JwkResponse;
+import com.org.authservice.dto.JwksResponse;
+import com.org.authservice.security.SigningKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Publishes the verification keys so other services can validate tokens locally. The max-age should
+// stay well below the rotation interval so every cached key set contains the next key before it is used.
+@RestController
+public class JwksController {
+
+    private final SigningKeys signingKeys;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeys signingKeys,
+                          @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.signingKeys = signingKeys;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<JwksResponse> jwks(WebRequest request) {
+        List<SigningKeys.SigningKey> keys = signingKeys.published();
+        String etag = '"' + Integer.toHexString(keys.stream().map(SigningKeys.SigningKey::kid).toList().hashCode()) + '"';
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(new JwksResponse(keys.stream().map(JwksController::toJwk).collect(Collectors.toList())));
+    }
+
+    private static JwkResponse toJwk(SigningKeys.SigningKey key) {
+        RSAPublicKey publicKey = key.publicKey();
+        return JwkResponse.builder()
+                .kty("RSA")
+                .use("sig")
+                .alg("RS256")
+                .kid(key.kid())
+                .n(base64Url(publicKey.getModulus()))
+                .e(base64Url(publicKey.getPublicExponent()))
+                .build();
+    }
+
+    // JWK integers are unsigned big-endian, so the sign byte BigInteger may prepend is dropped.
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,19 @@
+package com.org.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JwkResponse {
+    private String kty;
+    private String use;
+    private String alg;
+    private String kid;
+    private String n;
+    private String e;
+}
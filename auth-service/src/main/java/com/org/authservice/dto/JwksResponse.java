@@ -0,0 +1,14 @@
+package com.org.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JwksResponse {
+    private List<JwkResponse> keys;
+}
@@ -0,0 +1,21 @@
+package com.org.authservice.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+    private final boolean timedOut;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds, boolean timedOut) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timedOut = timedOut;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    // True when the request was queued but not served in time, rather than turned away at a full queue.
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
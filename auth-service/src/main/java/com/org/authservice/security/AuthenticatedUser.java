@@ -0,0 +1,40 @@
+package com.org.authservice.security;
+
+import com.org.authservice.model.Role;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+
+// Principal built from verified token claims alone, so authenticating a request needs no user lookup.
+public record AuthenticatedUser(Long id, String email, Role role) implements Principal {
+
+    static final String ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    // Tokens issued before the id claim was added cannot be turned into a principal on their own.
+    static boolean hasClaims(Claims claims) {
+        return claims.get(ID_CLAIM) != null && claims.get(ROLE_CLAIM) != null && claims.getSubject() != null;
+    }
+
+    static AuthenticatedUser from(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new AuthenticatedUser(
+                ((Number) claims.get(ID_CLAIM)).longValue(),
+                claims.getSubject(),
+                Role.valueOf(role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role));
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singleton(new SimpleGrantedAuthority(ROLE_PREFIX + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,46 @@
+package com.org.authservice.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+// Picks the bcrypt cost for this machine. Each step of the cost doubles the work, so one hash is
+// timed at the minimum cost and the cost is raised while the doubled time still fits the target.
+public final class BcryptStrength {
+    private static final String PROBE = "bcrypt-calibration";
+
+    private BcryptStrength() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(PROBE);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(PROBE);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long nanos = fastest;
+        while (strength < maxStrength && nanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    // The cost of a hash such as $2a$12$..., or -1 when it is not a bcrypt hash.
+    public static int of(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
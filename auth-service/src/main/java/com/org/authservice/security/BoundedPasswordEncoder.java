@@ -0,0 +1,115 @@
+package com.org.authservice.security;
+
+import com.org.authservice.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs password hashing and verification on a small pool sized to the cores with a bounded queue.
+// A burst of logins can then occupy at most threads + queue-capacity request threads; anything
+// beyond that is turned away at once instead of starving cheap endpoints of request threads.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration maxWait,
+                                  long retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.rejected = meterRegistry.counter("auth.password.hash.shed", "reason", "queue-full");
+        this.timedOut = meterRegistry.counter("auth.password.hash.shed", "reason", "timeout");
+        meterRegistry.gaugeCollectionSize("auth.password.hash.queue.depth", List.of(), executor.getQueue());
+        meterRegistry.gauge("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // The wait covers time in the queue as well as hashing. A request that cannot be served within it
+    // is cancelled and taken off the queue, and a task that reaches a thread after its deadline skips
+    // the hash. A hash already running when the deadline passes finishes, as bcrypt ignores interrupts.
+    private <T> T submit(Callable<T> task) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw overloaded();
+                }
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many authentication requests, try again later",
+                    retryAfterSeconds, false);
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            executor.remove((Runnable) future);
+            timedOut.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PasswordHashingRejectedException overloaded() {
+        return new PasswordHashingRejectedException("Authentication is temporarily overloaded, try again later",
+                retryAfterSeconds, true);
+    }
+}
@@ -1,26 +1,40 @@
 package com.org.authservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final boolean stateless;
+    private final List<String> freshUserPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsCache userDetailsCache,
+                                   @Value("${jwt.stateless:true}") boolean stateless,
+                                   @Value("${jwt.fresh-user-paths:}") List<String> freshUserPaths) {
+        this.jwtService = jwtService;
+        this.userDetailsCache = userDetailsCache;
+        this.stateless = stateless;
+        this.freshUserPaths = freshUserPaths;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -28,27 +42,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        final String jwt = authHeader.substring(7);
+        final Claims claims = jwtService.verify(jwt);
+
+        if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = authenticate(claims, request);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // The signature and expiry are already verified, so in stateless mode the claims are trusted as-is.
+    // Paths that need stored user data, and tokens issued without an id claim, go through the user cache.
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims, HttpServletRequest request) {
+        if (stateless && AuthenticatedUser.hasClaims(claims) && !needsFreshUser(request)) {
+            AuthenticatedUser user = AuthenticatedUser.from(claims);
+            return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        }
+        UserDetails userDetails = userDetailsCache.load(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private boolean needsFreshUser(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return freshUserPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
@@ -1,12 +1,26 @@
 package com.org.authservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.org.authservice.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -16,32 +30,76 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SigningKeys signingKeys;
+    private final long expiration;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
 
-    @Value("${jwt.expiration}")
-    private long expiration;
-
-    private byte[] getSigningKey() {
-        return Base64.getEncoder().encode(secret.getBytes());
+    // Tokens are RS256-signed and name their key in the kid header, so other services can verify
+    // them against the published key set. The parser is prepared once and resolves keys by kid.
+    public JwtService(SigningKeys signingKeys,
+                      @Value("${jwt.expiration}") long expiration,
+                      @Value("${jwt.verified-cache.ttl:5m}") Duration verifiedCacheTtl,
+                      @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize) {
+        this.signingKeys = signingKeys;
+        this.expiration = expiration;
+        this.parser = Jwts.parser().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolveVerificationKey(header);
+            }
+        });
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(Expiry.<String, Claims>creating((digest, claims) -> untilExpiry(claims, verifiedCacheTtl)))
+                .build();
     }
 
-    public String generateToken(UserDetails user) {
+    // Carries everything the request filter needs to build the principal without loading the user.
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", user.getAuthorities().iterator().next().getAuthority());
+        claims.put(AuthenticatedUser.ID_CLAIM, user.getId());
+        claims.put(AuthenticatedUser.ROLE_CLAIM, user.getAuthorities().iterator().next().getAuthority());
         return createToken(claims, user.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        SigningKeys.SigningKey key = signingKeys.active();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(SignatureAlgorithm.HS256, getSigningKey())
+                .signWith(SignatureAlgorithm.RS256, key.keyPair().getPrivate())
                 .compact();
     }
 
+    // Parses and verifies a token at most once while it stays in the cache. Entries are keyed by a
+    // digest so raw tokens are not retained, and never outlive the token's own expiry.
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(digest, claims);
+        } else if (isExpired(claims)) {
+            verifiedTokens.invalidate(digest);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
+    }
+
+    // Only RS256 with a currently published key is accepted, which rules out algorithm substitution.
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unsupported signing algorithm: " + header.getAlgorithm());
+        }
+        return signingKeys.find(header.getKeyId())
+                .map(SigningKeys.SigningKey::publicKey)
+                .orElseThrow(() -> new UnsupportedJwtException("Unknown signing key: " + header.getKeyId()));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -51,23 +109,32 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
+    public Boolean isTokenValid(String token, UserDetails userDetails) {
+        Claims claims = verify(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis();
     }
 
-    public Boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static Duration untilExpiry(Claims claims, Duration ttl) {
+        if (claims.getExpiration() == null) {
+            return ttl;
+        }
+        Duration remaining = Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis());
+        return remaining.isNegative() ? Duration.ZERO : remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.org.authservice.security;
+
+import com.org.authservice.exception.PasswordHashingRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+
+// Rewrites an outdated password hash after a successful login, as DaoAuthenticationProvider would,
+// but treats the rewrite as best effort: the rehash goes through the bounded hashing pool, and a
+// login that has already been verified must not fail because that pool turned the rehash away.
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+    private static final Logger log = LoggerFactory.getLogger(RehashingAuthenticationProvider.class);
+
+    private final UserDetailsPasswordService passwordService;
+
+    public RehashingAuthenticationProvider(UserDetailsPasswordService passwordService) {
+        this.passwordService = passwordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        UserDetails current = user;
+        if (getPasswordEncoder().upgradeEncoding(user.getPassword())) {
+            try {
+                String rehashed = getPasswordEncoder().encode(authentication.getCredentials().toString());
+                current = passwordService.updatePassword(user, rehashed);
+            } catch (PasswordHashingRejectedException e) {
+                log.debug("Skipped rehashing the password of {}: {}", user.getUsername(), e.getMessage());
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, current);
+    }
+}
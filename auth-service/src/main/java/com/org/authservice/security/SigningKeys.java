@@ -0,0 +1,95 @@
+package com.org.authservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// RSA signing keys, rotated on a schedule with overlap on both sides. The next key is published
+// one rotation before it signs anything, so verifiers with a cached key set already know it when
+// it becomes active, and retired keys stay published until every token they signed has expired.
+@Component
+public class SigningKeys {
+
+    public record SigningKey(String kid, KeyPair keyPair, Instant retiredAt) {
+        public RSAPublicKey publicKey() {
+            return (RSAPublicKey) keyPair.getPublic();
+        }
+
+        SigningKey retire(Instant at) {
+            return new SigningKey(kid, keyPair, at);
+        }
+    }
+
+    private final Duration tokenLifetime;
+    private final int keySize;
+    private final Clock clock;
+
+    // Ordered next, active, then retired keys from newest to oldest.
+    private volatile List<SigningKey> keys;
+
+    @Autowired
+    public SigningKeys(@Value("${jwt.expiration}") long expiration,
+                       @Value("${jwt.keys.size:2048}") int keySize) {
+        this(Duration.ofMillis(expiration), keySize, Clock.systemUTC());
+    }
+
+    SigningKeys(Duration tokenLifetime, int keySize, Clock clock) {
+        this.tokenLifetime = tokenLifetime;
+        this.keySize = keySize;
+        this.clock = clock;
+        this.keys = List.of(generate(), generate());
+    }
+
+    public SigningKey active() {
+        return keys.get(1);
+    }
+
+    public List<SigningKey> published() {
+        return keys;
+    }
+
+    public Optional<SigningKey> find(String kid) {
+        return keys.stream().filter(key -> key.kid().equals(kid)).findFirst();
+    }
+
+    // Promotes the pre-published key, publishes a fresh next key and drops retired keys whose
+    // tokens can no longer be valid.
+    @Scheduled(fixedDelayString = "${jwt.keys.rotation-interval:24h}", initialDelayString = "${jwt.keys.rotation-interval:24h}")
+    public synchronized void rotate() {
+        Instant now = clock.instant();
+        List<SigningKey> current = keys;
+        List<SigningKey> rotated = new ArrayList<>();
+        rotated.add(generate());
+        rotated.add(current.get(0));
+        rotated.add(current.get(1).retire(now));
+        for (SigningKey retired : current.subList(2, current.size())) {
+            if (retired.retiredAt().plus(tokenLifetime).isAfter(now)) {
+                rotated.add(retired);
+            }
+        }
+        keys = List.copyOf(rotated);
+    }
+
+    private SigningKey generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(keySize);
+            return new SigningKey(UUID.randomUUID().toString(), generator.generateKeyPair(), null);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
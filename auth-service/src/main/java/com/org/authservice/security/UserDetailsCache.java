@@ -0,0 +1,29 @@
+package com.org.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Bounded, short-lived cache in front of the user lookup for the requests that still need stored
+// user data rather than token claims. A zero TTL turns it into a plain pass-through.
+@Component
+public class UserDetailsCache {
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> users;
+
+    public UserDetailsCache(UserDetailsService userDetailsService,
+                            @Value("${jwt.user-cache.ttl:30s}") Duration ttl,
+                            @Value("${jwt.user-cache.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.users = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+    }
+
+    public UserDetails load(String email) {
+        return users.get(email, userDetailsService::loadUserByUsername);
+    }
+}
@@ -7,6 +7,7 @@ import com.org.authservice.dto.UserInfoResponse;
 import com.org.authservice.model.Role;
 import com.org.authservice.model.User;
 import com.org.authservice.repository.UserRepository;
+import com.org.authservice.security.AuthenticatedUser;
 import com.org.authservice.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -57,6 +58,20 @@ public class AuthService {
 
     public UserInfoResponse getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return UserInfoResponse.builder()
+                    .id(principal.id())
+                    .email(principal.email())
+                    .role(principal.role())
+                    .build();
+        }
+        if (authentication.getPrincipal() instanceof User cached) {
+            return UserInfoResponse.builder()
+                    .id(cached.getId())
+                    .email(cached.getEmail())
+                    .role(cached.getRole())
+                    .build();
+        }
         String email = authentication.getName();
 
         User user = userRepository.findByEmail(email)
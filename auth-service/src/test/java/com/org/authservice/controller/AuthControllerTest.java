@@ -15,12 +15,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -103,6 +106,30 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.token").isNotEmpty());
     }
 
+    @Test
+    void testLoginRehashesPasswordStoredWithOtherParameters() throws Exception {
+        User user = User.builder()
+                .email("rehash@example.com")
+                .password(new BCryptPasswordEncoder(4).encode("password123"))
+                .role(Role.USER)
+                .build();
+        userRepository.save(user);
+
+        LoginRequest request = new LoginRequest();
+        request.setEmail("rehash@example.com");
+        request.setPassword("password123");
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByEmail("rehash@example.com").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("{bcrypt}"));
+        assertFalse(passwordEncoder.upgradeEncoding(stored));
+        assertTrue(passwordEncoder.matches("password123", stored));
+    }
+
     @Test
     void testLoginWithInvalidCredentials() throws Exception {
         User user = User.builder()
@@ -153,6 +180,37 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.role", is("USER")));
     }
 
+    @Test
+    void testGetCurrentUserFromTokenClaims() throws Exception {
+        User user = User.builder()
+                .email("claims@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .role(Role.ADMIN)
+                .build();
+        userRepository.save(user);
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("claims@example.com");
+        loginRequest.setPassword("password123");
+
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String token = objectMapper.readValue(result.getResponse().getContentAsString(), AuthResponse.class).getToken();
+
+        // The principal comes from the token alone, so the request succeeds without the stored user.
+        userRepository.deleteAll();
+
+        mockMvc.perform(get("/auth/me")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(user.getId().intValue())))
+                .andExpect(jsonPath("$.email", is("claims@example.com")))
+                .andExpect(jsonPath("$.role", is("ADMIN")));
+    }
+
     @Test
     void testGetCurrentUserWithoutToken() throws Exception {
         mockMvc.perform(get("/auth/me"))
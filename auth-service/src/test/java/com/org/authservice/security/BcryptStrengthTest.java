@@ -0,0 +1,33 @@
+package com.org.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BcryptStrengthTest {
+
+    @Test
+    void readsTheCostOfBcryptHashes() {
+        assertEquals(5, BcryptStrength.of(new BCryptPasswordEncoder(5).encode("secret")));
+        assertEquals(12, BcryptStrength.of("$2a$12$abcdefghijklmnopqrstuv"));
+    }
+
+    @Test
+    void returnsMinusOneForAnythingElse() {
+        assertEquals(-1, BcryptStrength.of(null));
+        assertEquals(-1, BcryptStrength.of(""));
+        assertEquals(-1, BcryptStrength.of("{bcrypt}$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, BcryptStrength.of("$2a$xy$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, BcryptStrength.of("plain-text"));
+    }
+
+    @Test
+    void calibratesWithinTheBounds() {
+        assertEquals(4, BcryptStrength.calibrate(Duration.ZERO, 4, 6));
+        assertEquals(6, BcryptStrength.calibrate(Duration.ofMinutes(1), 4, 6));
+        assertEquals(5, BcryptStrength.calibrate(Duration.ofMinutes(1), 5, 5));
+    }
+}
@@ -0,0 +1,113 @@
+package com.org.authservice.security;
+
+import com.org.authservice.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> hashed = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void shedsRequestsBeyondThreadsAndQueue() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofSeconds(10), 3, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        PasswordHashingRejectedException ex = assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+
+        assertFalse(ex.isTimedOut());
+        assertEquals(3, ex.getRetryAfterSeconds());
+        release.countDown();
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:b", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.shed").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void givesUpOnRequestsNotServedWithinMaxWait() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(50), 1, meterRegistry);
+
+        PasswordHashingRejectedException ex = assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("a"));
+
+        assertTrue(ex.isTimedOut());
+    }
+
+    @Test
+    void neverHashesRequestsThatTimedOutInTheQueue() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(200), 1, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("b"));
+        assertEquals(0, meterRegistry.get("auth.password.hash.queue.depth").gauge().value());
+        release.countDown();
+
+        // The single thread runs tasks in order, so "b" would be hashed before "c" had it stayed queued.
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:c", encoder.encode("c"));
+        assertEquals(List.of("a", "c"), hashed);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hash.queue.depth").gauge().value() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashed.add(rawPassword.toString());
+                started.countDown();
+                // Like bcrypt, runs to completion even when the task is cancelled.
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
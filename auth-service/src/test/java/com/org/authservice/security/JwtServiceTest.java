@@ -0,0 +1,72 @@
+package com.org.authservice.security;
+
+import com.org.authservice.model.Role;
+import com.org.authservice.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtServiceTest {
+
+    private final User user = User.builder().id(7L).email("jwt@example.com").role(Role.ADMIN).build();
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        JwtService jwtService = new JwtService(keys(Duration.ofMinutes(1)), 60_000, Duration.ofMinutes(5), 100);
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.verify(token);
+
+        assertEquals("jwt@example.com", claims.getSubject());
+        assertEquals(7, ((Number) claims.get("uid")).intValue());
+        assertSame(claims, jwtService.verify(token));
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKeys() {
+        JwtService issuer = new JwtService(keys(Duration.ofMinutes(1)), 60_000, Duration.ofMinutes(5), 100);
+        JwtService verifier = new JwtService(keys(Duration.ofMinutes(1)), 60_000, Duration.ofMinutes(5), 100);
+
+        assertThrows(UnsupportedJwtException.class, () -> verifier.verify(issuer.generateToken(user)));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtService jwtService = new JwtService(keys(Duration.ofMinutes(1)), -1_000, Duration.ofMinutes(5), 100);
+        String token = jwtService.generateToken(user);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void rotationPrePublishesNextKeyAndKeepsRetiredKeyForTokenLifetime() {
+        // A zero token lifetime drops a retired key at the rotation after it was retired.
+        SigningKeys signingKeys = keys(Duration.ZERO);
+        JwtService jwtService = new JwtService(signingKeys, 60_000, Duration.ZERO, 0);
+        String token = jwtService.generateToken(user);
+        String next = signingKeys.published().get(0).kid();
+
+        signingKeys.rotate();
+
+        assertEquals(next, signingKeys.active().kid());
+        assertEquals("jwt@example.com", jwtService.verify(token).getSubject());
+        assertEquals(3, signingKeys.published().size());
+
+        signingKeys.rotate();
+
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.verify(token));
+    }
+
+    private static SigningKeys keys(Duration tokenLifetime) {
+        return new SigningKeys(tokenLifetime, 2048, Clock.systemUTC());
+    }
+}
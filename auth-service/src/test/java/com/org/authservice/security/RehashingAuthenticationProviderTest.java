@@ -0,0 +1,62 @@
+package com.org.authservice.security;
+
+import com.org.authservice.exception.PasswordHashingRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RehashingAuthenticationProviderTest {
+
+    private final UserDetails user = User.withUsername("user@example.com").password("old-hash").roles("USER").build();
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final UserDetailsPasswordService passwordService = mock(UserDetailsPasswordService.class);
+    private RehashingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("user@example.com")).thenReturn(user);
+        when(encoder.matches("secret", "old-hash")).thenReturn(true);
+        when(encoder.upgradeEncoding("old-hash")).thenReturn(true);
+
+        provider = new RehashingAuthenticationProvider(passwordService);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+    }
+
+    @Test
+    void rewritesOutdatedHashAfterLogin() {
+        when(encoder.encode("secret")).thenReturn("new-hash");
+        when(passwordService.updatePassword(user, "new-hash")).thenReturn(user);
+
+        assertTrue(login().isAuthenticated());
+
+        verify(passwordService).updatePassword(user, "new-hash");
+    }
+
+    @Test
+    void logsInWithoutRehashingWhenHashingIsOverloaded() {
+        when(encoder.encode("secret")).thenThrow(new PasswordHashingRejectedException("overloaded", 1, true));
+
+        assertTrue(login().isAuthenticated());
+
+        verify(passwordService, never()).updatePassword(any(), any());
+    }
+
+    private Authentication login() {
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "secret"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.org.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Covers the CPU side of POST /orders: building the entity graph and total from the request,
+// mapping the saved order to its response, and serializing that response the way MVC does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int basketSize;
+
+    private CreateOrderRequest request;
+    private Order order;
+    private OrderResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        List<OrderItemRequest> items = new ArrayList<>(basketSize);
+        for (int i = 0; i < basketSize; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId((long) i);
+            item.setQuantity(1 + i % 5);
+            items.add(item);
+        }
+        request = new CreateOrderRequest();
+        request.setCustomerId("benchmark-customer");
+        request.setItems(items);
+
+        order = OrderService.buildOrder(request);
+        order.setId(42L);
+        order.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        response = OrderService.mapToResponse(order);
+        // Same modules and features as the ObjectMapper Spring Boot configures for MVC.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return OrderService.buildOrder(request);
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return OrderService.mapToResponse(order);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] createOrderEndToEnd() throws Exception {
+        Order built = OrderService.buildOrder(request);
+        built.setId(42L);
+        return objectMapper.writeValueAsBytes(OrderService.mapToResponse(built));
+    }
+}
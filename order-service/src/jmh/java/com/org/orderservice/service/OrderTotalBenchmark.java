@@ -0,0 +1,71 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.model.Money;
+import com.org.orderservice.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the old BigDecimal multiply/reduce total with the long-based Money total.
+// Run with the gc profiler (configured in build.gradle) to see gc.alloc.rate.norm per basket.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int basketSize;
+
+    private List<OrderItem> items;
+    private List<BigDecimal> bigDecimalPrices;
+    private List<Integer> quantities;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(basketSize);
+        bigDecimalPrices = new ArrayList<>(basketSize);
+        quantities = new ArrayList<>(basketSize);
+        for (int i = 0; i < basketSize; i++) {
+            long cents = 199 + (i * 37L) % 10_000;
+            int quantity = 1 + i % 5;
+
+            OrderItem item = new OrderItem();
+            item.setUnitPrice(Money.ofMinor(cents));
+            item.setQuantity(quantity);
+            items.add(item);
+
+            bigDecimalPrices.add(BigDecimal.valueOf(cents, 2));
+            quantities.add(quantity);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < basketSize; i++) {
+            total = total.add(bigDecimalPrices.get(i).multiply(BigDecimal.valueOf(quantities.get(i))));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        return OrderService.totalOf(items);
+    }
+}
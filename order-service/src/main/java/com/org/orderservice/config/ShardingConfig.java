@@ -0,0 +1,60 @@
+package com.org.orderservice.config;
+
+import com.org.orderservice.sharding.ShardRouter;
+import com.org.orderservice.sharding.ShardRoutingDataSource;
+import com.org.orderservice.sharding.ShardSchemaInitializer;
+import com.org.orderservice.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties.getShards().size());
+    }
+
+    // Each shard gets its own Hikari pool; the routing DataSource picks one per transaction based
+    // on the shard bound to the calling thread.
+    @Bean
+    public DataSource dataSource(ShardingProperties properties, MeterRegistry meterRegistry) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("order-shard-" + i);
+            pool.setJdbcUrl(properties.getShards().get(i).getUrl());
+            pool.setUsername(properties.getUsername());
+            pool.setPassword(properties.getPassword());
+            pool.setMaximumPoolSize(properties.getMaxPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.put(i, pool);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(shards.get(0));
+        return routing;
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRouter shardRouter) {
+        return new ShardSchemaInitializer(shardRouter);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaInitializer initializer) {
+        return properties -> properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(initializer));
+    }
+}
@@ -0,0 +1,51 @@
+package com.org.orderservice.config;
+
+import com.org.orderservice.metrics.SqlMetricsListener;
+import com.org.orderservice.metrics.SqlRequestMetricsFilter;
+import com.org.orderservice.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+
+// This config and the metrics package are kept identical in order-, payment- and auth-service.
+// The services share no build to put them in a common module, so change all three together.
+@Configuration
+public class SqlMetricsConfig {
+
+    // Wraps every DataSource so statement counts and latencies are captured at the JDBC level,
+    // whichever repository or native query issued them.
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlRequestMetricsFilter sqlRequestMetricsFilter(MeterRegistry meterRegistry) {
+        return new SqlRequestMetricsFilter(meterRegistry);
+    }
+
+    // Applied by Boot to the application task executor, which also runs async MVC responses, so
+    // statements issued while streaming a response body count toward the request.
+    @Bean
+    public TaskDecorator sqlStatementCounterTaskDecorator() {
+        return SqlStatementCounter::propagate;
+    }
+}
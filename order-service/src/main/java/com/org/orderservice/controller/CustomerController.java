@@ -0,0 +1,28 @@
+package com.org.orderservice.controller;
+
+import com.org.orderservice.dto.CustomerOrderSummaryResponse;
+import com.org.orderservice.dto.SummaryRebuildResponse;
+import com.org.orderservice.service.CustomerOrderSummaryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/customers")
+public class CustomerController {
+
+    private final CustomerOrderSummaryService summaryService;
+
+    public CustomerController(CustomerOrderSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    @GetMapping("/{customerId}/order-summary")
+    public ResponseEntity<CustomerOrderSummaryResponse> getOrderSummary(@PathVariable String customerId) {
+        return ResponseEntity.ok(summaryService.getSummary(customerId));
+    }
+
+    @PostMapping("/order-summary/rebuild")
+    public ResponseEntity<SummaryRebuildResponse> rebuildOrderSummaries() {
+        return ResponseEntity.ok(summaryService.rebuild());
+    }
+}
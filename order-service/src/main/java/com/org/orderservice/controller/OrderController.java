@@ -1,21 +1,40 @@
 package com.org.orderservice.controller;
 
 import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderExportFormat;
+import com.org.orderservice.dto.OrderIntakeResponse;
 import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.exception.InvalidRequestException;
+import com.org.orderservice.service.OrderExportService;
+import com.org.orderservice.service.OrderIntakeService;
 import com.org.orderservice.service.OrderService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderExportService orderExportService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           OrderIntakeService orderIntakeService,
+                           OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderIntakeService = orderIntakeService;
+        this.orderExportService = orderExportService;
     }
 
     @PostMapping
@@ -27,4 +46,83 @@ public class OrderController {
     public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntakeResponse> submitOrder(@RequestBody @Valid CreateOrderRequest request) {
+        OrderIntakeResponse response = orderIntakeService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/intake/" + response.getTrackingId()))
+                .body(response);
+    }
+
+    @GetMapping("/intake/{trackingId}")
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(@PathVariable String trackingId) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(trackingId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long fromId,
+            @RequestParam(required = false) Long toId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OrderExportFormat exportFormat = OrderExportFormat.from(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestException("Export range is empty: from " + from + " is not before to " + to);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            orderExportService.export(from, to, fromId, toId, exportFormat, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders" + (from != null ? "-" + from : "") + (to != null ? "-" + to : "")
+                                + "." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // True when Accept-Encoding lists gzip, or failing that *, with a non-zero q-value.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
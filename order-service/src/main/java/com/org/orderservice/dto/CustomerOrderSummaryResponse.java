@@ -0,0 +1,15 @@
+package com.org.orderservice.dto;
+
+import com.org.orderservice.model.Money;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CustomerOrderSummaryResponse {
+    private String customerId;
+    private long orderCount;
+    private Money totalSpent;
+    private Long lastOrderId;
+    private LocalDateTime lastOrderAt;
+}
@@ -0,0 +1,33 @@
+package com.org.orderservice.dto;
+
+import com.org.orderservice.exception.InvalidRequestException;
+
+public enum OrderExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    OrderExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static OrderExportFormat from(String value) {
+        for (OrderExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + value);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,15 @@
+package com.org.orderservice.dto;
+
+import com.org.orderservice.model.OrderIntakeStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OrderIntakeResponse {
+    private String trackingId;
+    private OrderIntakeStatus status;
+    private Long orderId;
+    private String message;
+    private LocalDateTime updatedAt;
+}
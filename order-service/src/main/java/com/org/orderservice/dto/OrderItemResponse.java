@@ -1,12 +1,11 @@
 package com.org.orderservice.dto;
 
+import com.org.orderservice.model.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 public class OrderItemResponse {
     private Long productId;
     private Integer quantity;
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 }
\ No newline at end of file
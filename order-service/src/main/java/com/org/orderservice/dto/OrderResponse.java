@@ -1,8 +1,8 @@
 package com.org.orderservice.dto;
 
+import com.org.orderservice.model.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -11,6 +11,6 @@ public class OrderResponse {
     private Long id;
     private String customerId;
     private LocalDateTime createdAt;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private List<OrderItemResponse> items;
 }
@@ -0,0 +1,14 @@
+package com.org.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryRebuildResponse {
+    private int customers;
+    private int chunks;
+    private long durationMillis;
+}
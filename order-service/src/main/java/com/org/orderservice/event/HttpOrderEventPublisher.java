@@ -0,0 +1,32 @@
+package com.org.orderservice.event;
+
+import com.org.orderservice.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+// Posts each outbox event to a consumer endpoint. Consumers should de-duplicate on X-Event-Id,
+// since the relay delivers at least once.
+@Component
+@ConditionalOnProperty(name = "orders.outbox.publisher", havingValue = "http")
+public class HttpOrderEventPublisher implements OrderEventPublisher {
+    private final RestClient restClient;
+
+    public HttpOrderEventPublisher(RestClient.Builder restClientBuilder,
+                                   @Value("${orders.outbox.http.url}") String url) {
+        this.restClient = restClientBuilder.baseUrl(url).build();
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Event-Id", String.valueOf(event.getId()))
+                .header("X-Event-Type", event.getEventType())
+                .body(event.getPayload())
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,23 @@
+package com.org.orderservice.event;
+
+import com.org.orderservice.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Delivers outbox events to in-process @EventListener consumers.
+@Component
+@ConditionalOnProperty(name = "orders.outbox.publisher", havingValue = "local", matchIfMissing = true)
+public class LocalOrderEventPublisher implements OrderEventPublisher {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public LocalOrderEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        applicationEventPublisher.publishEvent(new OrderEventMessage(
+                event.getId(), event.getEventType(), event.getAggregateId(), event.getPayload()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.org.orderservice.event;
+
+import com.org.orderservice.model.Money;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OrderCreatedEvent {
+    private Long orderId;
+    private String customerId;
+    private Money totalAmount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,4 @@
+package com.org.orderservice.event;
+
+public record OrderEventMessage(Long eventId, String eventType, String aggregateId, String payload) {
+}
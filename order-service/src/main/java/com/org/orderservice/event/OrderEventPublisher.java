@@ -0,0 +1,7 @@
+package com.org.orderservice.event;
+
+import com.org.orderservice.model.OutboxEvent;
+
+public interface OrderEventPublisher {
+    void publish(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,8 @@
+package com.org.orderservice.exception;
+
+// A request parameter the client got wrong; mapped to 400. Other IllegalArgumentExceptions are bugs, not bad input.
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.org.orderservice.exception;
+
+// A batch handed to createOrders mixed customers from different shards. Callers group batches by
+// shard before creating them, so this is a server-side bug rather than bad client input.
+public class OrderBatchSpansShardsException extends RuntimeException {
+    public OrderBatchSpansShardsException(String message) {
+        super(message);
+    }
+}
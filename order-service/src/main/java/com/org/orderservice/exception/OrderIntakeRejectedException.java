@@ -0,0 +1,14 @@
+package com.org.orderservice.exception;
+
+public class OrderIntakeRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public OrderIntakeRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,58 @@
+package com.org.orderservice.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-thread running count of executed SQL statements. It only ever grows, so callers measure a
+// unit of work by taking the difference between two readings rather than resetting it.
+// A request additionally gets its own counter, which follows the request onto async threads
+// (see propagate) so a streamed response body is still attributed to the request that started it.
+public final class SqlStatementCounter {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<AtomicLong> REQUEST = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void add(int statements) {
+        COUNT.get()[0] += statements;
+        AtomicLong request = REQUEST.get();
+        if (request != null) {
+            request.addAndGet(statements);
+        }
+    }
+
+    static AtomicLong startRequest() {
+        AtomicLong request = new AtomicLong();
+        REQUEST.set(request);
+        return request;
+    }
+
+    static void endRequest() {
+        REQUEST.remove();
+    }
+
+    // Wraps a task handed off by the current request so its statements count toward that request.
+    public static Runnable propagate(Runnable task) {
+        AtomicLong request = REQUEST.get();
+        if (request == null) {
+            return task;
+        }
+        return () -> {
+            AtomicLong previous = REQUEST.get();
+            REQUEST.set(request);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    REQUEST.set(previous);
+                } else {
+                    REQUEST.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.org.orderservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customer_order_summaries")
+@Data
+public class CustomerOrderSummary {
+    @Id
+    private String customerId;
+
+    private long orderCount;
+
+    // Kept in minor units so the incremental update is a plain SQL addition.
+    private long totalSpentMinor;
+
+    private Long lastOrderId;
+    private LocalDateTime lastOrderAt;
+}
@@ -0,0 +1,113 @@
+package com.org.orderservice.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Fixed-point amount held as a long count of cents. Every amount in the system is in CURRENCY:
+// neither the DECIMAL columns nor the JSON numbers carry a currency, so Money does not either.
+// Arithmetic on the hot path is plain long math; BigDecimal only appears at the JSON and JPA edges.
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final String CURRENCY = "USD";
+    private static final int SCALE = 2;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        if (amount.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("Amount " + amount + " has more than " + SCALE + " decimal places");
+        }
+        return new Money(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public static Money zero() {
+        return new Money(0);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money money)) return false;
+        return minorUnits == money.minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + CURRENCY;
+    }
+
+    // Written as a plain JSON number so the wire format is the same as the BigDecimal it replaced.
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                if (p.currentToken() == JsonToken.VALUE_STRING) {
+                    return Money.of(p.getText().trim());
+                }
+                return Money.of(p.getDecimalValue());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+            }
+        }
+    }
+}
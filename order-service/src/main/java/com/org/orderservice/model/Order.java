@@ -1,9 +1,9 @@
 package com.org.orderservice.model;
 
+import com.org.orderservice.sharding.ShardedId;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,7 +12,7 @@ import java.util.List;
 @Data
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId(sequenceName = "orders_seq")
     private Long id;
 
     private String customerId;
@@ -22,5 +22,5 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<OrderItem> items;
 
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.org.orderservice.model;
+
+public enum OrderIntakeStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -3,8 +3,6 @@ package com.org.orderservice.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "order_items")
 @Data
@@ -15,7 +13,7 @@ public class OrderItem {
 
     private Long productId;
     private Integer quantity;
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @ManyToOne
     @JoinColumn(name = "order_id")
@@ -0,0 +1,35 @@
+package com.org.orderservice.model;
+
+import com.org.orderservice.sharding.ShardedId;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_pending", columnList = "published_at, next_attempt_at"))
+@Data
+public class OutboxEvent {
+    @Id
+    @ShardedId(sequenceName = "outbox_events_seq")
+    private Long id;
+
+    private String aggregateType;
+    private String aggregateId;
+    private String eventType;
+
+    @Column(length = 4000)
+    private String payload;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+    private LocalDateTime nextAttemptAt;
+    private int attempts;
+
+    // Lease taken by the relay pass that is publishing the event; an expired lease can be re-claimed.
+    private String claimedBy;
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+}
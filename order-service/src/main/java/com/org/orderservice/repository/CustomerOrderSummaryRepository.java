@@ -0,0 +1,39 @@
+package com.org.orderservice.repository;
+
+import com.org.orderservice.model.CustomerOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, String> {
+
+    @Modifying
+    @Query("update CustomerOrderSummary s set " +
+            "s.orderCount = s.orderCount + :orders, " +
+            "s.totalSpentMinor = s.totalSpentMinor + :amountMinor, " +
+            "s.lastOrderId = case when s.lastOrderAt is null or s.lastOrderAt <= :lastOrderAt then :lastOrderId else s.lastOrderId end, " +
+            "s.lastOrderAt = case when s.lastOrderAt is null or s.lastOrderAt <= :lastOrderAt then :lastOrderAt else s.lastOrderAt end " +
+            "where s.customerId = :customerId")
+    int applyOrders(@Param("customerId") String customerId,
+                    @Param("orders") long orders,
+                    @Param("amountMinor") long amountMinor,
+                    @Param("lastOrderId") Long lastOrderId,
+                    @Param("lastOrderAt") LocalDateTime lastOrderAt);
+
+    @Query(value = "select distinct customer_id from orders order by customer_id", nativeQuery = true)
+    List<String> findAllOrderCustomerIds();
+
+    // Sharded ids don't follow creation order, so the latest order is picked by created_at, newest id on a tie,
+    // matching how applyOrders keeps the last order.
+    @Query(value = "select o.customer_id, count(*), sum(o.total_amount), max(o.created_at), " +
+            "(select l.id from orders l where l.customer_id = o.customer_id order by l.created_at desc, l.id desc fetch first 1 row only) " +
+            "from orders o where o.customer_id in (:customerIds) group by o.customer_id", nativeQuery = true)
+    List<Object[]> aggregateOrders(@Param("customerIds") Collection<String> customerIds);
+}
@@ -1,9 +1,30 @@
 package com.org.orderservice.repository;
 
 import com.org.orderservice.model.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    // Rows come back grouped by order so the export can write each order as soon as its last item is read.
+    // Every bound is optional; the id range lets callers such as reconciliation walk the orders in slices.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i from OrderItem i join fetch i.order o " +
+            "where (:from is null or o.createdAt >= :from) and (:to is null or o.createdAt < :to) " +
+            "and (:fromId is null or o.id >= :fromId) and (:toId is null or o.id < :toId) " +
+            "order by o.id, i.id")
+    Stream<OrderItem> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                      @Param("fromId") Long fromId, @Param("toId") Long toId);
+}
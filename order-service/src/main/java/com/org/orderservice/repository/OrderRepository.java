@@ -1,9 +1,14 @@
 package com.org.orderservice.repository;
 
 import com.org.orderservice.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.org.orderservice.repository;
+
+import com.org.orderservice.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e.id from OutboxEvent e where e.publishedAt is null and e.nextAttemptAt <= :now " +
+            "and (e.claimedUntil is null or e.claimedUntil < :now) order by e.id")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // The conditional update is the claim: when two relays race for the same rows, the database
+    // lets only one of them match each row.
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedBy = :claimant, e.claimedUntil = :until " +
+            "where e.id in (:ids) and e.publishedAt is null and (e.claimedUntil is null or e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimant") String claimant,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    List<OutboxEvent> findByClaimedByOrderByIdAsc(String claimant);
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    long countByPublishedAtIsNull();
+}
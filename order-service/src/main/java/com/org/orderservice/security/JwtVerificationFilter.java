@@ -0,0 +1,57 @@
+package com.org.orderservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// Rejects requests without a valid auth-service bearer token. The verified claims are exposed to
+// handlers as the CLAIMS_ATTRIBUTE request attribute.
+public class JwtVerificationFilter extends OncePerRequestFilter {
+    public static final String CLAIMS_ATTRIBUTE = JwtVerificationFilter.class.getName() + ".claims";
+
+    private final JwtVerifier verifier;
+    private final List<String> excludedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtVerificationFilter(JwtVerifier verifier, List<String> excludedPaths) {
+        this.verifier = verifier;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            response.setHeader("WWW-Authenticate", "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing bearer token");
+            return;
+        }
+
+        Map<String, Object> claims;
+        try {
+            claims = verifier.verify(authHeader.substring(7));
+        } catch (InvalidTokenException e) {
+            response.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+            return;
+        }
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,181 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.dto.CustomerOrderSummaryResponse;
+import com.org.orderservice.dto.SummaryRebuildResponse;
+import com.org.orderservice.model.CustomerOrderSummary;
+import com.org.orderservice.model.Money;
+import com.org.orderservice.model.Order;
+import com.org.orderservice.repository.CustomerOrderSummaryRepository;
+import com.org.orderservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class CustomerOrderSummaryService {
+    private final CustomerOrderSummaryRepository summaryRepository;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final int rebuildChunkSize;
+    private final int rebuildParallelism;
+
+    public CustomerOrderSummaryService(CustomerOrderSummaryRepository summaryRepository,
+                                       ShardRouter shardRouter,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${orders.summary.rebuild.chunk-size:500}") int rebuildChunkSize,
+                                       @Value("${orders.summary.rebuild.parallelism:4}") int rebuildParallelism) {
+        this.summaryRepository = summaryRepository;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    // Folds newly created orders into their customers' summaries inside the transaction that
+    // creates them, so the read model commits or rolls back together with the orders.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrders(List<Order> orders) {
+        Map<String, List<Order>> byCustomer = orders.stream().collect(Collectors.groupingBy(Order::getCustomerId));
+        byCustomer.forEach((customerId, customerOrders) -> {
+            long amountMinor = 0;
+            for (Order order : customerOrders) {
+                amountMinor = Math.addExact(amountMinor, order.getTotalAmount().getMinorUnits());
+            }
+            Order latest = customerOrders.stream().max(Comparator.comparing(Order::getCreatedAt)).orElseThrow();
+            if (apply(customerId, customerOrders.size(), amountMinor, latest) == 0) {
+                createEmptySummary(customerId);
+                apply(customerId, customerOrders.size(), amountMinor, latest);
+            }
+        });
+    }
+
+    private int apply(String customerId, long orders, long amountMinor, Order latest) {
+        return summaryRepository.applyOrders(customerId, orders, amountMinor, latest.getId(), latest.getCreatedAt());
+    }
+
+    // Inserted on the order transaction's own connection behind a savepoint, so it never needs a
+    // second pooled connection. A concurrent first order for the same customer may win the race;
+    // the duplicate insert is then rolled back to the savepoint and the increment above simply
+    // applies to the existing row. Plain JDBC keeps the duplicate key from marking the whole JPA
+    // transaction rollback-only.
+    private void createEmptySummary(String customerId) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into customer_order_summaries (customer_id, order_count, total_spent_minor) values (?, 0, 0)")) {
+                insert.setString(1, customerId);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+                || (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+    }
+
+    // Summaries live on the same shard as the customer's orders.
+    public CustomerOrderSummaryResponse getSummary(String customerId) {
+        return shardRouter.onShard(shardRouter.shardFor(customerId), () -> summaryRepository.findById(customerId))
+                .map(this::mapToResponse)
+                .orElseGet(() -> {
+                    CustomerOrderSummaryResponse empty = new CustomerOrderSummaryResponse();
+                    empty.setCustomerId(customerId);
+                    empty.setTotalSpent(Money.zero());
+                    return empty;
+                });
+    }
+
+    // Regenerates every summary from the orders table. Each shard's customers are split into chunks
+    // that are aggregated and rewritten in parallel, each chunk in its own transaction on its shard.
+    public SummaryRebuildResponse rebuild() {
+        long start = System.nanoTime();
+        List<List<String>> customerIdsByShard = shardRouter.onAllShards(shard -> summaryRepository.findAllOrderCustomerIds());
+        List<Runnable> chunks = new ArrayList<>();
+        int customers = 0;
+        for (int shard = 0; shard < customerIdsByShard.size(); shard++) {
+            List<String> customerIds = customerIdsByShard.get(shard);
+            customers += customerIds.size();
+            for (int i = 0; i < customerIds.size(); i += rebuildChunkSize) {
+                List<String> chunk = customerIds.subList(i, Math.min(i + rebuildChunkSize, customerIds.size()));
+                int chunkShard = shard;
+                chunks.add(() -> shardRouter.onShard(chunkShard, () -> rebuildChunk(chunk)));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism,
+                new CustomizableThreadFactory("summary-rebuild-"));
+        try {
+            CompletableFuture.allOf(chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(chunk, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        return new SummaryRebuildResponse(customers, chunks.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void rebuildChunk(List<String> customerIds) {
+        newTransaction.executeWithoutResult(status -> {
+            List<CustomerOrderSummary> summaries = summaryRepository.aggregateOrders(customerIds).stream().map(row -> {
+                CustomerOrderSummary summary = new CustomerOrderSummary();
+                summary.setCustomerId((String) row[0]);
+                summary.setOrderCount(((Number) row[1]).longValue());
+                summary.setTotalSpentMinor(Money.of((BigDecimal) row[2]).getMinorUnits());
+                summary.setLastOrderAt(toLocalDateTime(row[3]));
+                summary.setLastOrderId(((Number) row[4]).longValue());
+                return summary;
+            }).collect(Collectors.toList());
+            summaryRepository.deleteAllByIdInBatch(customerIds);
+            summaryRepository.saveAll(summaries);
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private CustomerOrderSummaryResponse mapToResponse(CustomerOrderSummary summary) {
+        CustomerOrderSummaryResponse res = new CustomerOrderSummaryResponse();
+        res.setCustomerId(summary.getCustomerId());
+        res.setOrderCount(summary.getOrderCount());
+        res.setTotalSpent(Money.ofMinor(summary.getTotalSpentMinor()));
+        res.setLastOrderId(summary.getLastOrderId());
+        res.setLastOrderAt(summary.getLastOrderAt());
+        return res;
+    }
+}
@@ -0,0 +1,59 @@
+package com.org.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.orderservice.event.OrderCreatedEvent;
+import com.org.orderservice.model.Order;
+import com.org.orderservice.model.OutboxEvent;
+import com.org.orderservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class OrderEventOutbox {
+    public static final String ORDER_CREATED = "OrderCreated";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Must join the transaction that saves the orders, so an event exists if and only if its order does.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(List<Order> orders) {
+        outboxEventRepository.saveAll(orders.stream().map(this::toOutboxEvent).collect(Collectors.toList()));
+    }
+
+    private OutboxEvent toOutboxEvent(Order order) {
+        OrderCreatedEvent payload = new OrderCreatedEvent();
+        payload.setOrderId(order.getId());
+        payload.setCustomerId(order.getCustomerId());
+        payload.setTotalAmount(order.getTotalAmount());
+        payload.setCreatedAt(order.getCreatedAt());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("Order");
+        event.setAggregateId(String.valueOf(order.getId()));
+        event.setEventType(ORDER_CREATED);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(order.getCreatedAt());
+        event.setNextAttemptAt(order.getCreatedAt());
+        return event;
+    }
+
+    private String toJson(OrderCreatedEvent payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event for order " + payload.getOrderId(), e);
+        }
+    }
+}
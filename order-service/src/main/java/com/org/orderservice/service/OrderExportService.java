@@ -0,0 +1,178 @@
+package com.org.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.orderservice.dto.OrderExportFormat;
+import com.org.orderservice.model.Order;
+import com.org.orderservice.model.OrderItem;
+import com.org.orderservice.repository.OrderItemRepository;
+import com.org.orderservice.sharding.ShardRouter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportService {
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int clearInterval;
+
+    public OrderExportService(OrderItemRepository orderItemRepository,
+                              EntityManager entityManager,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${orders.export.clear-interval:1000}") int clearInterval) {
+        this.orderItemRepository = orderItemRepository;
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.clearInterval = clearInterval;
+    }
+
+    // Streams every order created in [from, to) with an id in [fromId, toId), all bounds optional, with its items. Rows are read through a database cursor
+    // and the persistence context is cleared periodically, so memory use does not grow with the result.
+    // Shards are read one after another into the same writer; orders are ordered by id within a shard only.
+    public void export(LocalDate from, LocalDate to, Long fromId, Long toId, OrderExportFormat format, OutputStream out) {
+        try (ExportWriter writer = format == OrderExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out)) {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.onShard(shard, () -> readOnlyTransaction.executeWithoutResult(status -> exportShard(from, to, fromId, toId, writer)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void exportShard(LocalDate from, LocalDate to, Long fromId, Long toId, ExportWriter writer) {
+        try (Stream<OrderItem> rows = orderItemRepository.streamForExport(
+                from != null ? from.atStartOfDay() : null, to != null ? to.atStartOfDay() : null, fromId, toId)) {
+            int count = 0;
+            Iterator<OrderItem> it = rows.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface ExportWriter extends AutoCloseable {
+        void write(OrderItem item) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // One JSON object per order, with its items nested. The object is written incrementally as
+    // items arrive, so even very large baskets are never held in memory.
+    private class NdjsonWriter implements ExportWriter {
+        private final JsonGenerator gen;
+        private Long currentOrderId;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.gen = objectMapper.getFactory().createGenerator(out);
+            this.gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.gen.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(OrderItem item) throws IOException {
+            Order order = item.getOrder();
+            if (!Objects.equals(order.getId(), currentOrderId)) {
+                endOrder();
+                currentOrderId = order.getId();
+                gen.writeStartObject();
+                gen.writeNumberField("id", order.getId());
+                gen.writeStringField("customerId", order.getCustomerId());
+                gen.writeObjectField("createdAt", order.getCreatedAt());
+                gen.writeObjectField("totalAmount", order.getTotalAmount());
+                gen.writeArrayFieldStart("items");
+            }
+            gen.writeStartObject();
+            gen.writeNumberField("productId", item.getProductId());
+            gen.writeNumberField("quantity", item.getQuantity());
+            gen.writeObjectField("unitPrice", item.getUnitPrice());
+            gen.writeEndObject();
+        }
+
+        private void endOrder() throws IOException {
+            if (currentOrderId != null) {
+                gen.writeEndArray();
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            endOrder();
+            gen.close();
+        }
+    }
+
+    // One row per order item, with the order columns repeated.
+    private static class CsvWriter implements ExportWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write("order_id,customer_id,created_at,total_amount,product_id,quantity,unit_price\n");
+        }
+
+        @Override
+        public void write(OrderItem item) throws IOException {
+            Order order = item.getOrder();
+            writer.write(String.valueOf(order.getId()));
+            writer.write(',');
+            writer.write(escape(order.getCustomerId()));
+            writer.write(',');
+            writer.write(String.valueOf(order.getCreatedAt()));
+            writer.write(',');
+            writer.write(order.getTotalAmount().toBigDecimal().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(item.getProductId()));
+            writer.write(',');
+            writer.write(String.valueOf(item.getQuantity()));
+            writer.write(',');
+            writer.write(item.getUnitPrice().toBigDecimal().toPlainString());
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.org.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderIntakeResponse;
+import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.exception.OrderIntakeRejectedException;
+import com.org.orderservice.exception.OrderNotFoundException;
+import com.org.orderservice.model.OrderIntakeStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class OrderIntakeService {
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final OrderService orderService;
+    private final BlockingQueue<IntakeTicket> queue;
+    private final Cache<String, OrderIntakeResponse> statuses;
+    private final int workers;
+    private final int batchSize;
+    private final long retryAfterSeconds;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public OrderIntakeService(OrderService orderService,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.intake.queue-capacity:1000}") int queueCapacity,
+                              @Value("${orders.intake.workers:4}") int workers,
+                              @Value("${orders.intake.batch-size:50}") int batchSize,
+                              @Value("${orders.intake.retry-after-seconds:1}") long retryAfterSeconds,
+                              @Value("${orders.intake.status-ttl:10m}") Duration statusTtl,
+                              @Value("${orders.intake.status-max-size:100000}") long statusMaxSize) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Bounded as well as expiring, so a burst of submissions cannot grow it faster than the TTL drains it.
+        this.statuses = Caffeine.newBuilder().maximumSize(statusMaxSize).expireAfterWrite(statusTtl).build();
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        meterRegistry.gaugeCollectionSize("orders.intake.queue.size", List.of(), queue);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("order-intake-"));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drainQueue);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public OrderIntakeResponse submit(CreateOrderRequest request) {
+        String trackingId = UUID.randomUUID().toString();
+        OrderIntakeResponse queued = updateStatus(trackingId, OrderIntakeStatus.QUEUED, null, null);
+        if (!queue.offer(new IntakeTicket(trackingId, request))) {
+            statuses.invalidate(trackingId);
+            throw new OrderIntakeRejectedException("Order intake queue is full", retryAfterSeconds);
+        }
+        return queued;
+    }
+
+    public OrderIntakeResponse getStatus(String trackingId) {
+        OrderIntakeResponse status = statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new OrderNotFoundException("Order intake not found with tracking id: " + trackingId);
+        }
+        return status;
+    }
+
+    private void drainQueue() {
+        List<IntakeTicket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IntakeTicket first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                // A batch commits in one transaction, which cannot span shards.
+                batch.stream()
+                        .collect(Collectors.groupingBy(t -> orderService.shardFor(t.request())))
+                        .values()
+                        .forEach(this::process);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<IntakeTicket> batch) {
+        batch.forEach(t -> updateStatus(t.trackingId(), OrderIntakeStatus.PROCESSING, null, null));
+        try {
+            List<OrderResponse> created = orderService.createOrders(batch.stream()
+                    .map(IntakeTicket::request)
+                    .toList());
+            for (int i = 0; i < batch.size(); i++) {
+                updateStatus(batch.get(i).trackingId(), OrderIntakeStatus.COMPLETED, created.get(i).getId(), null);
+            }
+        } catch (Exception batchFailure) {
+            // One bad order must not fail the whole batch, so retry its members one at a time.
+            log.warn("Order intake batch of {} failed, falling back to single inserts", batch.size(), batchFailure);
+            batch.forEach(this::processSingle);
+        }
+    }
+
+    private void processSingle(IntakeTicket ticket) {
+        try {
+            OrderResponse created = orderService.createOrder(ticket.request());
+            updateStatus(ticket.trackingId(), OrderIntakeStatus.COMPLETED, created.getId(), null);
+        } catch (Exception e) {
+            updateStatus(ticket.trackingId(), OrderIntakeStatus.FAILED, null, e.getMessage());
+        }
+    }
+
+    private OrderIntakeResponse updateStatus(String trackingId, OrderIntakeStatus status, Long orderId, String message) {
+        OrderIntakeResponse response = new OrderIntakeResponse();
+        response.setTrackingId(trackingId);
+        response.setStatus(status);
+        response.setOrderId(orderId);
+        response.setMessage(message);
+        response.setUpdatedAt(LocalDateTime.now());
+        statuses.put(trackingId, response);
+        return response;
+    }
+
+    private record IntakeTicket(String trackingId, CreateOrderRequest request) {
+    }
+}
@@ -4,13 +4,21 @@ import com.org.orderservice.dto.CreateOrderRequest;
 import com.org.orderservice.dto.OrderItemRequest;
 import com.org.orderservice.dto.OrderResponse;
 import com.org.orderservice.dto.OrderItemResponse;
+import com.org.orderservice.exception.OrderBatchSpansShardsException;
 import com.org.orderservice.exception.OrderNotFoundException;
+import com.org.orderservice.model.Money;
 import com.org.orderservice.model.Order;
 import com.org.orderservice.model.OrderItem;
 import com.org.orderservice.repository.OrderRepository;
+import com.org.orderservice.sharding.ShardRouter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,12 +26,83 @@ import java.util.stream.Collectors;
 @Service
 public class OrderService {
     private final OrderRepository orderRepository;
+    private final OrderEventOutbox orderEventOutbox;
+    private final CustomerOrderSummaryService customerOrderSummaryService;
+    private final CacheManager cacheManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository,
+                        OrderEventOutbox orderEventOutbox,
+                        CustomerOrderSummaryService customerOrderSummaryService,
+                        CacheManager cacheManager,
+                        ShardRouter shardRouter,
+                        PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
+        this.orderEventOutbox = orderEventOutbox;
+        this.customerOrderSummaryService = customerOrderSummaryService;
+        this.cacheManager = cacheManager;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
+    public int shardFor(CreateOrderRequest request) {
+        return shardRouter.shardFor(request.getCustomerId());
+    }
+
+    // Orders are immutable once created, so the response is written through to the cache
+    // and later reads never have to go back to the database.
+    // The shard is bound before the transaction starts so it runs on the customer's shard.
+    @CachePut(value = "orders", key = "#result.id")
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return shardRouter.onShard(shardFor(request), () -> transaction.execute(status -> {
+            Order saved = orderRepository.save(buildOrder(request));
+            orderEventOutbox.orderCreated(List.of(saved));
+            customerOrderSummaryService.recordOrders(List.of(saved));
+            return mapToResponse(saved);
+        }));
+    }
+
+    // Persists a whole batch in a single transaction; used by the async intake workers, which
+    // group their batches by shard since a transaction cannot span shards. The batch is not split
+    // here: the intake falls back to single inserts when a batch fails, and a split batch that
+    // failed halfway would then create the already committed orders twice.
+    public List<OrderResponse> createOrders(List<CreateOrderRequest> requests) {
+        int shard = shardFor(requests.get(0));
+        if (requests.stream().anyMatch(request -> shardFor(request) != shard)) {
+            throw new OrderBatchSpansShardsException("Order batch spans more than one shard");
+        }
+        List<Order> saved = shardRouter.onShard(shard, () -> transaction.execute(status -> {
+            List<Order> orders = orderRepository.saveAll(requests.stream()
+                    .map(OrderService::buildOrder)
+                    .collect(Collectors.toList()));
+            orderEventOutbox.orderCreated(orders);
+            customerOrderSummaryService.recordOrders(orders);
+            return orders;
+        }));
+
+        Cache cache = cacheManager.getCache("orders");
+        return saved.stream().map(order -> {
+            OrderResponse response = mapToResponse(order);
+            if (cache != null) {
+                cache.put(response.getId(), response);
+            }
+            return response;
+        }).collect(Collectors.toList());
+    }
+
+    @Cacheable(value = "orders", key = "#id")
+    public OrderResponse getOrderById(Long id) {
+        return shardRouter.onShard(shardRouter.shardOf(id), () -> readOnlyTransaction.execute(status ->
+                        orderRepository.findWithItemsById(id).map(OrderService::mapToResponse)))
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+    }
+
+    // Static so the mapping and total hot paths can be benchmarked without a Spring context.
+    static Order buildOrder(CreateOrderRequest request) {
         Order order = new Order();
         order.setCustomerId(request.getCustomerId());
         order.setCreatedAt(LocalDateTime.now());
@@ -38,21 +117,20 @@ public class OrderService {
         }).collect(Collectors.toList());
 
         order.setItems(items);
-        order.setTotalAmount(items.stream()
-                .map(i -> i.getUnitPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        Order saved = orderRepository.save(order);
-        return mapToResponse(saved);
+        order.setTotalAmount(totalOf(items));
+        return order;
     }
 
-    public OrderResponse getOrderById(Long id) {
-        return orderRepository.findById(id)
-                .map(this::mapToResponse)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+    // Accumulates in minor units so a basket of any size allocates a single Money for its total.
+    static Money totalOf(List<OrderItem> items) {
+        long total = 0;
+        for (OrderItem item : items) {
+            total = Math.addExact(total, Math.multiplyExact(item.getUnitPrice().getMinorUnits(), item.getQuantity()));
+        }
+        return Money.ofMinor(total);
     }
 
-    private OrderResponse mapToResponse(Order order) {
+    static OrderResponse mapToResponse(Order order) {
         OrderResponse res = new OrderResponse();
         res.setId(order.getId());
         res.setCustomerId(order.getCustomerId());
@@ -68,7 +146,7 @@ public class OrderService {
         return res;
     }
 
-    private BigDecimal fetchPriceFromProductService(Long productId) {
-        return BigDecimal.valueOf(9.99);
+    private static Money fetchPriceFromProductService(Long productId) {
+        return Money.ofMinor(999);
     }
 }
@@ -0,0 +1,124 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.event.OrderEventPublisher;
+import com.org.orderservice.model.OutboxEvent;
+import com.org.orderservice.repository.OutboxEventRepository;
+import com.org.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventPublisher publisher;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer publishTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderEventPublisher publisher,
+                       ShardRouter shardRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${orders.outbox.batch-size:100}") int batchSize,
+                       @Value("${orders.outbox.initial-backoff:1s}") Duration initialBackoff,
+                       @Value("${orders.outbox.max-backoff:5m}") Duration maxBackoff,
+                       @Value("${orders.outbox.claim-timeout:1m}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.published = meterRegistry.counter("orders.outbox.published");
+        this.failed = meterRegistry.counter("orders.outbox.failed");
+        this.publishTimer = meterRegistry.timer("orders.outbox.publish");
+        meterRegistry.gauge("orders.outbox.pending", pending);
+        meterRegistry.gauge("orders.outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0);
+    }
+
+    // Every shard has its own outbox table; they are drained in parallel and the gauges report
+    // the total backlog and the oldest pending event across all of them.
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<Progress> progress = shardRouter.onAllShards(shard -> relayShard());
+        pending.set(progress.stream().mapToLong(Progress::pending).sum());
+        lagMillis.set(progress.stream().mapToLong(Progress::lagMillis).max().orElse(0L));
+    }
+
+    // Several instances may relay the same tables, so every batch is claimed with a lease before it
+    // is published. If an instance dies mid-batch, its lease expires after claim-timeout and another
+    // instance picks the events up, so delivery stays at-least-once.
+    private Progress relayShard() {
+        List<OutboxEvent> batch;
+        int candidates;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxEventRepository.findClaimableIds(now, PageRequest.of(0, batchSize));
+            candidates = ids.size();
+            if (ids.isEmpty()) {
+                break;
+            }
+            String claimant = UUID.randomUUID().toString();
+            outboxEventRepository.claim(ids, claimant, now, now.plus(claimTimeout));
+            batch = outboxEventRepository.findByClaimedByOrderByIdAsc(claimant);
+            batch.forEach(this::deliver);
+            outboxEventRepository.saveAll(batch);
+        } while (candidates == batchSize && batch.stream().allMatch(e -> e.getPublishedAt() != null));
+        return new Progress(outboxEventRepository.countByPublishedAtIsNull(),
+                outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                        .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                        .orElse(0L));
+    }
+
+    private void deliver(OutboxEvent event) {
+        try {
+            publishTimer.recordCallable(() -> {
+                publisher.publish(event);
+                return null;
+            });
+            event.setPublishedAt(LocalDateTime.now());
+            event.setLastError(null);
+            published.increment();
+        } catch (Exception e) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+            event.setLastError(e.getMessage());
+            event.setClaimedBy(null);
+            event.setClaimedUntil(null);
+            failed.increment();
+            log.warn("Failed to publish outbox event {} (attempt {})", event.getId(), event.getAttempts(), e);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private record Progress(long pending, long lagMillis) {
+    }
+}
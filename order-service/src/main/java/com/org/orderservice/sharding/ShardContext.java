@@ -0,0 +1,38 @@
+package com.org.orderservice.sharding;
+
+// Holds the shard the current thread is working against. The routing DataSource reads it when a
+// transaction obtains its connection, so it must be bound before the transaction starts.
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    private static volatile int shardCount = 1;
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static int currentOrDefault() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static int shardCount() {
+        return shardCount;
+    }
+
+    static void setShardCount(int count) {
+        shardCount = count;
+    }
+
+    static Integer bind(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
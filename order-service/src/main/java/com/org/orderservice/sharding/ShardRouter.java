@@ -0,0 +1,70 @@
+package com.org.orderservice.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Maps customers and order ids to shards and runs work with a shard bound to the calling thread.
+public class ShardRouter {
+    private final int shardCount;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard must be configured");
+        }
+        this.shardCount = shardCount;
+        this.fanOutExecutor = Executors.newFixedThreadPool(shardCount, new CustomizableThreadFactory("shard-fan-out-"));
+        ShardContext.setShardCount(shardCount);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // All of a customer's orders live on one shard, so per-customer reads and writes stay local.
+    public int shardFor(String customerId) {
+        return Math.floorMod(customerId.hashCode(), shardCount);
+    }
+
+    public int shardOf(long orderId) {
+        return (int) Math.floorMod(orderId, (long) shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+
+    public void onShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Runs the work against every shard in parallel and returns the results in shard order.
+    public <T> List<T> onAllShards(IntFunction<T> work) {
+        List<CompletableFuture<T>> futures = IntStream.range(0, shardCount)
+                .mapToObj(shard -> CompletableFuture.supplyAsync(() -> onShard(shard, () -> work.apply(shard)), fanOutExecutor))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+}
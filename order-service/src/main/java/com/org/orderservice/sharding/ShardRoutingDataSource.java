@@ -0,0 +1,24 @@
+package com.org.orderservice.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+
+// Without a bound shard (schema bootstrap, the H2 console) connections go to shard 0.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentOrDefault();
+    }
+
+    @Override
+    public void close() {
+        getResolvedDataSources().values().forEach(dataSource -> {
+            if (dataSource instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        });
+    }
+}
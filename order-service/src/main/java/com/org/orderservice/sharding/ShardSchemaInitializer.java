@@ -0,0 +1,46 @@
+package com.org.orderservice.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+// Hibernate only manages the schema of the connection it bootstraps with, which is shard 0.
+// Once the context is up, the same schema action is replayed against every other shard.
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+    private final ShardRouter shardRouter;
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    public ShardSchemaInitializer(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (metadata == null) {
+            return;
+        }
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.onShard(shard, () -> SchemaManagementToolCoordinator.process(
+                    metadata,
+                    sessionFactory.getServiceRegistry(),
+                    sessionFactory.getProperties(),
+                    action -> {
+                    }));
+        }
+    }
+}
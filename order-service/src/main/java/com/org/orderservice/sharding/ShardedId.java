@@ -0,0 +1,17 @@
+package com.org.orderservice.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Generates ids of the form sequenceValue * shardCount + shard, so the owning shard can be
+// recovered from the id alone.
+@IdGeneratorType(ShardedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+    String sequenceName();
+}
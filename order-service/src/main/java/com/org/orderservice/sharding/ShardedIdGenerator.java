@@ -0,0 +1,31 @@
+package com.org.orderservice.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+public class ShardedIdGenerator extends SequenceStyleGenerator {
+    private final String sequenceName;
+
+    public ShardedIdGenerator(ShardedId config) {
+        this.sequenceName = config.sequenceName();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        // Every shard has its own sequence, so values must not be pooled in memory across shards.
+        parameters.put(INCREMENT_PARAM, "1");
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        long sequenceValue = ((Number) super.generate(session, object)).longValue();
+        return Math.addExact(Math.multiplyExact(sequenceValue, ShardContext.shardCount()), ShardContext.currentOrDefault());
+    }
+}
@@ -0,0 +1,23 @@
+package com.org.orderservice.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "orders.sharding")
+public class ShardingProperties {
+    // Order ids encode their shard as id % shards.size(), so the list may only ever be appended to
+    // together with a data migration; reordering or resizing it strands existing orders.
+    private List<Shard> shards = new ArrayList<>();
+    private String username = "sa";
+    private String password = "";
+    private int maxPoolSize = 10;
+
+    @Data
+    public static class Shard {
+        private String url;
+    }
+}
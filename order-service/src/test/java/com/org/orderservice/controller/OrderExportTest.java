@@ -0,0 +1,134 @@
+package com.org.orderservice.controller;
+
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    private final String customerId = "export-" + UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        orderService.createOrder(order(2));
+        orderService.createOrder(order(1));
+    }
+
+    @Test
+    void export_shouldWriteOneNdjsonLinePerOrder() throws Exception {
+        MvcResult result = export(get("/orders/export").param("from", today.toString()).param("to", today.plusDays(1).toString()));
+
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        List<String> lines = linesFor(result.getResponse().getContentAsString());
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"items\":[{") && line.contains("},{")));
+    }
+
+    @Test
+    void export_shouldWriteOneCsvRowPerItem() throws Exception {
+        MvcResult result = export(get("/orders/export").param("format", "csv"));
+
+        assertEquals("text/csv", result.getResponse().getContentType());
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.startsWith("order_id,customer_id,created_at,total_amount,product_id,quantity,unit_price\n"));
+        assertEquals(3, linesFor(body).size());
+    }
+
+    @Test
+    void export_shouldLeaveOutOrdersOutsideTheDateRange() throws Exception {
+        MvcResult result = export(get("/orders/export").param("from", today.plusDays(1).toString()));
+
+        assertEquals(0, linesFor(result.getResponse().getContentAsString()).size());
+    }
+
+    @Test
+    void export_shouldGzip_onlyWhenClientAcceptsIt() throws Exception {
+        MvcResult gzipped = export(get("/orders/export").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5"));
+        assertEquals("gzip", gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(2, linesFor(new String(in.readAllBytes(), StandardCharsets.UTF_8)).size());
+        }
+
+        MvcResult refused = export(get("/orders/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"));
+        assertNull(refused.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2, linesFor(refused.getResponse().getContentAsString()).size());
+    }
+
+    @Test
+    void export_shouldRejectUnknownFormatAndEmptyRange() throws Exception {
+        mockMvc.perform(get("/orders/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported export format: xml"));
+        mockMvc.perform(get("/orders/export").param("from", today.toString()).param("to", today.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(OrderController.acceptsGzip("gzip, deflate"));
+        assertTrue(OrderController.acceptsGzip("*"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=0"));
+        assertFalse(OrderController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(OrderController.acceptsGzip("deflate, *;q=0"));
+        assertFalse(OrderController.acceptsGzip(null));
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+                .andReturn();
+    }
+
+    // Other tests share the database, so only this test's customer is counted.
+    private List<String> linesFor(String body) {
+        return body.lines().filter(line -> line.contains(customerId)).toList();
+    }
+
+    private CreateOrderRequest order(int items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setItems(IntStream.range(0, items).mapToObj(i -> {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(100L + i);
+            item.setQuantity(1);
+            return item;
+        }).toList());
+        return request;
+    }
+}
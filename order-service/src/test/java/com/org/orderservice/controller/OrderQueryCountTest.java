@@ -0,0 +1,89 @@
+package com.org.orderservice.controller;
+
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderExportFormat;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.service.OrderExportService;
+import com.org.orderservice.service.OrderService;
+import com.org.orderservice.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.org.orderservice.metrics.QueryCountAssertions.assertMaxQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private OrderResponse order;
+
+    @BeforeEach
+    void setUp() {
+        order = orderService.createOrder(orderWithItems(5));
+        cacheManager.getCache("orders").clear();
+    }
+
+    @Test
+    void getOrder_shouldLoadOrderAndItemsInOneQuery() {
+        assertMaxQueries(1, () -> mockMvc.perform(get("/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5)));
+    }
+
+    @Test
+    void getOrder_shouldNotHitDatabase_whenCached() throws Exception {
+        mockMvc.perform(get("/orders/{id}", order.getId())).andExpect(status().isOk());
+
+        assertMaxQueries(0, () -> mockMvc.perform(get("/orders/{id}", order.getId()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void export_shouldUseOneQueryPerShardRegardlessOfOrderCount() {
+        IntStream.range(0, 10).forEach(i -> orderService.createOrder(orderWithItems(3)));
+
+        assertMaxQueries(shardRouter.shardCount(), () -> orderExportService.export(LocalDate.now(), LocalDate.now().plusDays(1), null, null,
+                OrderExportFormat.NDJSON, new ByteArrayOutputStream()));
+    }
+
+    private CreateOrderRequest orderWithItems(int count) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId("query-count-customer");
+        request.setItems(IntStream.range(0, count).mapToObj(i -> {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId((long) i);
+            item.setQuantity(1);
+            return item;
+        }).toList());
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.org.orderservice.event;
+
+import com.org.orderservice.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class OrderEventPublishersTest {
+
+    private final OutboxEvent event = event();
+
+    @Test
+    void local_shouldPublishApplicationEvent() {
+        ApplicationEventPublisher applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
+        new LocalOrderEventPublisher(applicationEventPublisher).publish(event);
+
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher).publishEvent(published.capture());
+        assertEquals(new OrderEventMessage(42L, "OrderCreated", "7", "{\"orderId\":7}"), published.getValue());
+    }
+
+    @Test
+    void http_shouldPostPayloadWithEventHeaders() {
+        RestClient.Builder builder = RestClient.builder();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+        server.expect(requestTo("http://consumer/events/orders"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Event-Id", "42"))
+                .andExpect(header("X-Event-Type", "OrderCreated"))
+                .andExpect(content().json("{\"orderId\":7}"))
+                .andRespond(withSuccess());
+
+        new HttpOrderEventPublisher(builder, "http://consumer/events/orders").publish(event);
+
+        server.verify();
+    }
+
+    @Test
+    void http_shouldFail_whenConsumerRejectsEvent() {
+        RestClient.Builder builder = RestClient.builder();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+        server.expect(requestTo("http://consumer/events/orders"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON));
+
+        HttpOrderEventPublisher publisher = new HttpOrderEventPublisher(builder, "http://consumer/events/orders");
+
+        assertThrows(HttpServerErrorException.class, () -> publisher.publish(event));
+    }
+
+    private static OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(42L);
+        event.setEventType("OrderCreated");
+        event.setAggregateId("7");
+        event.setPayload("{\"orderId\":7}");
+        return event;
+    }
+}
@@ -0,0 +1,26 @@
+package com.org.orderservice.metrics;
+
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    // Runs the work on the calling thread and fails if it issued more SQL statements than allowed.
+    // MockMvc requests execute on the test thread, so this works for whole endpoints too.
+    public static long assertMaxQueries(long max, Executable work) {
+        long before = SqlStatementCounter.current();
+        try {
+            work.execute();
+        } catch (Throwable t) {
+            fail("Work under query-count assertion failed", t);
+        }
+        long executed = SqlStatementCounter.current() - before;
+        assertTrue(executed <= max, "Expected at most " + max + " SQL statements but " + executed + " were executed");
+        return executed;
+    }
+}
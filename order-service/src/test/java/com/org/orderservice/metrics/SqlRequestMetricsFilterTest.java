@@ -0,0 +1,57 @@
+package com.org.orderservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlRequestMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlRequestMetricsFilter filter = new SqlRequestMetricsFilter(meterRegistry);
+
+    @Test
+    void recordsStatementsIssuedByTheRequest() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request("/orders/{id}"), new MockHttpServletResponse(), (req, res) -> SqlStatementCounter.add(3));
+        }
+
+        DistributionSummary summary = summary("/orders/{id}");
+        assertEquals(2, summary.count());
+        assertEquals(6, summary.totalAmount());
+    }
+
+    @Test
+    void recordsAsyncRequestsWithTheStatementsOfTheirAsyncWork() throws Exception {
+        MockHttpServletRequest request = request("/orders/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            SqlStatementCounter.add(1);
+            req.startAsync();
+            CompletableFuture.runAsync(SqlStatementCounter.propagate(() -> SqlStatementCounter.add(4))).join();
+        });
+        assertEquals(0, summary("/orders/export").count());
+
+        request.getAsyncContext().complete();
+
+        assertEquals(1, summary("/orders/export").count());
+        assertEquals(5, summary("/orders/export").totalAmount());
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.get("sql.statements.per.request").tag("uri", uri).summary();
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,36 @@
+package com.org.orderservice.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void arithmetic_shouldWorkInMinorUnits() {
+        Money total = Money.of("9.99").times(3).plus(Money.of("0.03"));
+
+        assertEquals(3000, total.getMinorUnits());
+        assertEquals(new BigDecimal("30.00"), total.toBigDecimal());
+    }
+
+    @Test
+    void of_shouldRejectSubMinorUnitAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.001"));
+        assertEquals(Money.ofMinor(100), Money.of("1.000"));
+    }
+
+    @Test
+    void json_shouldKeepDecimalNumberWireFormat() throws Exception {
+        assertEquals("19.98", objectMapper.writeValueAsString(Money.ofMinor(1998)));
+        assertEquals(Money.ofMinor(1998), objectMapper.readValue("19.98", Money.class));
+        assertEquals(Money.ofMinor(1998), objectMapper.readValue("\"19.98\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("19.999", Money.class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.org.orderservice.repository;
+
+import com.org.orderservice.model.OutboxEvent;
+import com.org.orderservice.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void claim_shouldLetOnlyOneRelayTakeAnEvent_untilTheLeaseExpires() {
+        shardRouter.onShard(0, () -> {
+            // Not yet due, so the scheduled relay in this context leaves it alone.
+            OutboxEvent event = new OutboxEvent();
+            event.setEventType("OrderCreated");
+            event.setPayload("{}");
+            event.setCreatedAt(LocalDateTime.now());
+            event.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+            List<Long> ids = List.of(repository.save(event).getId());
+            LocalDateTime now = LocalDateTime.now();
+
+            assertEquals(1, repository.claim(ids, "relay-a", now, now.plusMinutes(1)));
+            assertEquals(0, repository.claim(ids, "relay-b", now, now.plusMinutes(1)));
+            assertEquals(1, repository.findByClaimedByOrderByIdAsc("relay-a").size());
+
+            LocalDateTime afterLease = now.plusMinutes(2);
+            assertEquals(1, repository.claim(ids, "relay-b", afterLease, afterLease.plusMinutes(1)));
+            assertEquals(1, repository.findByClaimedByOrderByIdAsc("relay-b").size());
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.org.orderservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private KeyPair keyPair;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        JwksKeySet keySet = mock(JwksKeySet.class);
+        when(keySet.find("current")).thenReturn(Optional.of(keyPair.getPublic()));
+        when(keySet.find("retired")).thenReturn(Optional.empty());
+        verifier = new JwtVerifier(keySet, objectMapper, Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void acceptsTokenSignedWithPublishedKey() throws Exception {
+        Map<String, Object> claims = verifier.verify(token("RS256", "current", NOW.plusSeconds(60)));
+
+        assertEquals("user@example.com", claims.get("sub"));
+    }
+
+    @Test
+    void rejectsUnknownKeyOtherAlgorithmsAndTamperedTokens() throws Exception {
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token("RS256", "retired", NOW.plusSeconds(60))));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token("HS256", "current", NOW.plusSeconds(60))));
+
+        String[] parts = token("RS256", "current", NOW.plusSeconds(60)).split("\\.");
+        String forged = parts[0] + '.' + encode(Map.of("sub", "admin@example.com", "exp", NOW.plusSeconds(60).getEpochSecond())) + '.' + parts[2];
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(forged));
+    }
+
+    @Test
+    void rejectsExpiredTokenBeyondClockSkew() throws Exception {
+        verifier.verify(token("RS256", "current", NOW.minusSeconds(10)));
+
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token("RS256", "current", NOW.minusSeconds(31))));
+    }
+
+    private String token(String alg, String kid, Instant expiresAt) throws Exception {
+        String signingInput = encode(Map.of("alg", alg, "kid", kid)) + '.'
+                + encode(Map.of("sub", "user@example.com", "exp", expiresAt.getEpochSecond()));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private String encode(Map<String, Object> json) throws Exception {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(json));
+    }
+}
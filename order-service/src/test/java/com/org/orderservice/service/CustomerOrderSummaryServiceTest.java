@@ -0,0 +1,91 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.CustomerOrderSummaryResponse;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.model.Money;
+import com.org.orderservice.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A pool of two connections per shard: taking a second connection for the summary insert would
+// exhaust it as soon as two first orders race.
+@SpringBootTest(properties = "orders.sharding.max-pool-size=2")
+class CustomerOrderSummaryServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerOrderSummaryService summaryService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordOrders_shouldCountEveryConcurrentFirstOrder() throws Exception {
+        String customerId = "summary-" + UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture.allOf(IntStream.range(0, 16)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> orderService.createOrder(order(customerId)), executor))
+                    .toArray(CompletableFuture[]::new)).get(20, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        CustomerOrderSummaryResponse summary = summaryService.getSummary(customerId);
+        assertEquals(16, summary.getOrderCount());
+        assertEquals(Money.ofMinor(999).times(16), summary.getTotalSpent());
+    }
+
+    @Test
+    void rebuild_shouldMatchIncrementalSummaryAndPickLatestOrderByCreationTime() {
+        String customerId = "summary-" + UUID.randomUUID();
+        OrderResponse first = orderService.createOrder(order(customerId));
+        OrderResponse second = orderService.createOrder(order(customerId));
+        CustomerOrderSummaryResponse incremental = summaryService.getSummary(customerId);
+        assertEquals(second.getId(), incremental.getLastOrderId());
+
+        summaryService.rebuild();
+        CustomerOrderSummaryResponse rebuilt = summaryService.getSummary(customerId);
+        assertEquals(incremental.getOrderCount(), rebuilt.getOrderCount());
+        assertEquals(incremental.getTotalSpent(), rebuilt.getTotalSpent());
+        assertEquals(second.getId(), rebuilt.getLastOrderId());
+
+        // The lower id is now the latest order.
+        LocalDateTime later = second.getCreatedAt().plusMinutes(1);
+        shardRouter.onShard(shardRouter.shardFor(customerId),
+                () -> jdbcTemplate.update("update orders set created_at = ? where id = ?", later, first.getId()));
+        summaryService.rebuild();
+
+        assertEquals(first.getId(), summaryService.getSummary(customerId).getLastOrderId());
+    }
+
+    private static CreateOrderRequest order(String customerId) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(1L);
+        item.setQuantity(1);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setItems(List.of(item));
+        return request;
+    }
+}
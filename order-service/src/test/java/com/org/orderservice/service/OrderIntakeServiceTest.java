@@ -0,0 +1,144 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderIntakeResponse;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.dto.OrderResponse;
+import com.org.orderservice.exception.OrderIntakeRejectedException;
+import com.org.orderservice.exception.OrderNotFoundException;
+import com.org.orderservice.model.OrderIntakeStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderIntakeService intakeService;
+    private CreateOrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        // Workers are not started, so submitted orders stay queued.
+        intakeService = new OrderIntakeService(orderService, new SimpleMeterRegistry(),
+                1, 1, 10, 5, Duration.ofMinutes(1), 1000);
+
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(1L);
+        item.setQuantity(2);
+        request = new CreateOrderRequest();
+        request.setCustomerId("customer-1");
+        request.setItems(List.of(item));
+    }
+
+    @Test
+    void submit_shouldQueueOrderAndTrackStatus() {
+        OrderIntakeResponse response = intakeService.submit(request);
+
+        assertEquals(OrderIntakeStatus.QUEUED, response.getStatus());
+        assertEquals(response, intakeService.getStatus(response.getTrackingId()));
+    }
+
+    @Test
+    void submit_shouldRejectWithRetryAfter_whenQueueIsFull() {
+        intakeService.submit(request);
+
+        OrderIntakeRejectedException exception = assertThrows(OrderIntakeRejectedException.class,
+                () -> intakeService.submit(request));
+        assertEquals(5, exception.getRetryAfterSeconds());
+    }
+
+    @Test
+    void getStatus_shouldThrowException_whenTrackingIdIsUnknown() {
+        assertThrows(OrderNotFoundException.class, () -> intakeService.getStatus("unknown"));
+    }
+
+    @Test
+    void workers_shouldCreateQueuedOrdersAsOneMicroBatch() throws Exception {
+        intakeService = new OrderIntakeService(orderService, new SimpleMeterRegistry(),
+                10, 1, 10, 5, Duration.ofMinutes(1), 1000);
+        when(orderService.shardFor(any())).thenReturn(0);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<CreateOrderRequest> requests = invocation.getArgument(0);
+            return LongStream.rangeClosed(1, requests.size()).mapToObj(OrderIntakeServiceTest::created).toList();
+        });
+        OrderIntakeResponse first = intakeService.submit(request);
+        OrderIntakeResponse second = intakeService.submit(request);
+        OrderIntakeResponse third = intakeService.submit(request);
+
+        intakeService.start();
+        try {
+            assertEquals(OrderIntakeStatus.COMPLETED, awaitDone(first.getTrackingId()).getStatus());
+            assertEquals(3L, awaitDone(third.getTrackingId()).getOrderId());
+            assertEquals(2L, intakeService.getStatus(second.getTrackingId()).getOrderId());
+        } finally {
+            intakeService.stop();
+        }
+        verify(orderService).createOrders(argThat(requests -> requests.size() == 3));
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void workers_shouldFallBackToSingleInserts_whenBatchFails() throws Exception {
+        intakeService = new OrderIntakeService(orderService, new SimpleMeterRegistry(),
+                10, 1, 10, 5, Duration.ofMinutes(1), 1000);
+        CreateOrderRequest bad = new CreateOrderRequest();
+        bad.setCustomerId("customer-1");
+        bad.setItems(List.of());
+        when(orderService.shardFor(any())).thenReturn(0);
+        when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("batch rejected"));
+        when(orderService.createOrder(request)).thenReturn(created(7L));
+        when(orderService.createOrder(bad)).thenThrow(new IllegalStateException("no items"));
+        OrderIntakeResponse good = intakeService.submit(request);
+        OrderIntakeResponse failing = intakeService.submit(bad);
+
+        intakeService.start();
+        try {
+            OrderIntakeResponse goodStatus = awaitDone(good.getTrackingId());
+            OrderIntakeResponse failingStatus = awaitDone(failing.getTrackingId());
+
+            assertEquals(OrderIntakeStatus.COMPLETED, goodStatus.getStatus());
+            assertEquals(7L, goodStatus.getOrderId());
+            assertEquals(OrderIntakeStatus.FAILED, failingStatus.getStatus());
+            assertEquals("no items", failingStatus.getMessage());
+        } finally {
+            intakeService.stop();
+        }
+    }
+
+    private OrderIntakeResponse awaitDone(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OrderIntakeResponse status = intakeService.getStatus(trackingId);
+        while ((status.getStatus() == OrderIntakeStatus.QUEUED || status.getStatus() == OrderIntakeStatus.PROCESSING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = intakeService.getStatus(trackingId);
+        }
+        return status;
+    }
+
+    private static OrderResponse created(long id) {
+        OrderResponse response = new OrderResponse();
+        response.setId(id);
+        return response;
+    }
+}
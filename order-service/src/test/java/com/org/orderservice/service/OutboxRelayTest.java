@@ -0,0 +1,131 @@
+package com.org.orderservice.service;
+
+import com.org.orderservice.event.OrderEventPublisher;
+import com.org.orderservice.model.OutboxEvent;
+import com.org.orderservice.repository.OutboxEventRepository;
+import com.org.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private OrderEventPublisher publisher;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(shardRouter.onAllShards(any())).thenAnswer(invocation ->
+                List.of(invocation.<IntFunction<?>>getArgument(0).apply(0)));
+        relay = new OutboxRelay(repository, publisher, shardRouter, new SimpleMeterRegistry(),
+                10, Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofMinutes(1));
+        when(repository.findFirstByPublishedAtIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void relay_shouldPublishClaimedEventsAndMarkThemPublished() throws Exception {
+        OutboxEvent event = event(1L, 0);
+        when(repository.findClaimableIds(any(), any())).thenReturn(List.of(1L));
+        when(repository.findByClaimedByOrderByIdAsc(anyString())).thenReturn(List.of(event));
+
+        relay.relay();
+
+        verify(repository).claim(eq(List.of(1L)), anyString(), any(), any());
+        verify(publisher).publish(event);
+        assertNotNull(event.getPublishedAt());
+        verify(repository).saveAll(List.of(event));
+    }
+
+    @Test
+    void relay_shouldNotPublish_whenAnotherInstanceWonTheClaim() throws Exception {
+        when(repository.findClaimableIds(any(), any())).thenReturn(List.of(1L));
+        when(repository.findByClaimedByOrderByIdAsc(anyString())).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(publisher, never()).publish(any());
+    }
+
+    @Test
+    void relay_shouldBackOffExponentiallyUpToTheCapAndReleaseTheClaim() throws Exception {
+        OutboxEvent first = event(1L, 0);
+        OutboxEvent third = event(2L, 2);
+        OutboxEvent tenth = event(3L, 9);
+        when(repository.findClaimableIds(any(), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(repository.findByClaimedByOrderByIdAsc(anyString())).thenReturn(List.of(first, third, tenth));
+        doThrow(new IllegalStateException("consumer down")).when(publisher).publish(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+
+        assertEquals(1, first.getAttempts());
+        assertBackoff(before, Duration.ofSeconds(1), first);
+        assertBackoff(before, Duration.ofSeconds(4), third);
+        assertBackoff(before, Duration.ofSeconds(5), tenth);
+        for (OutboxEvent event : List.of(first, third, tenth)) {
+            assertNull(event.getPublishedAt());
+            assertNull(event.getClaimedBy());
+            assertNull(event.getClaimedUntil());
+            assertEquals("consumer down", event.getLastError());
+        }
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals(3, saved.getValue().size());
+    }
+
+    @Test
+    void relay_shouldStopAfterAPartialBatch() {
+        when(repository.findClaimableIds(any(), any())).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(repository, never()).claim(anyList(), anyString(), any(), any());
+    }
+
+    private static void assertBackoff(LocalDateTime before, Duration expected, OutboxEvent event) {
+        Duration delay = Duration.between(before, event.getNextAttemptAt());
+        assertTrue(delay.compareTo(expected) >= 0 && delay.compareTo(expected.plusSeconds(1)) < 0,
+                "expected a delay of about " + expected + " but was " + delay);
+    }
+
+    private static OutboxEvent event(long id, int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType(OrderEventOutbox.ORDER_CREATED);
+        event.setPayload("{}");
+        event.setAttempts(attempts);
+        event.setClaimedBy("claimant");
+        event.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        return event;
+    }
+}
@@ -0,0 +1,52 @@
+package com.org.orderservice.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private final ShardRouter router = new ShardRouter(4);
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    void shardOf_shouldRecoverShardEncodedInId() {
+        for (int shard = 0; shard < 4; shard++) {
+            long id = 12345L * 4 + shard;
+            assertEquals(shard, router.shardOf(id));
+        }
+    }
+
+    @Test
+    void shardFor_shouldBeStableAndInRange() {
+        int shard = router.shardFor("customer-1");
+
+        assertEquals(shard, router.shardFor("customer-1"));
+        assertTrue(shard >= 0 && shard < 4);
+    }
+
+    @Test
+    void onShard_shouldBindAndRestoreShard() {
+        router.onShard(2, () -> {
+            assertEquals(2, ShardContext.current());
+            router.onShard(3, () -> assertEquals(3, ShardContext.current()));
+            assertEquals(2, ShardContext.current());
+        });
+
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void onAllShards_shouldRunOncePerShardInShardOrder() {
+        List<Integer> bound = router.onAllShards(shard -> ShardContext.current());
+
+        assertEquals(List.of(0, 1, 2, 3), bound);
+    }
+}
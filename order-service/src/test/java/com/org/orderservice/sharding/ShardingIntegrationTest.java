@@ -0,0 +1,139 @@
+package com.org.orderservice.sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.orderservice.dto.CreateOrderRequest;
+import com.org.orderservice.dto.OrderItemRequest;
+import com.org.orderservice.exception.OrderBatchSpansShardsException;
+import com.org.orderservice.repository.OrderRepository;
+import com.org.orderservice.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // One customer per shard.
+    private final Map<Integer, String> customers = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; customers.size() < shardRouter.shardCount(); i++) {
+            String customerId = "sharding-" + run + "-" + i;
+            customers.putIfAbsent(shardRouter.shardFor(customerId), customerId);
+        }
+    }
+
+    @Test
+    void orders_shouldLandOnTheirCustomersShardsAndBeReadExportedAndSummarizedAcrossThem() throws Exception {
+        Map<Long, String> customerByOrder = new HashMap<>();
+        for (String customerId : customers.values()) {
+            for (int i = 0; i < 2; i++) {
+                JsonNode created = objectMapper.readTree(mockMvc.perform(post("/orders")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(order(customerId))))
+                        .andExpect(status().isCreated())
+                        .andReturn().getResponse().getContentAsString());
+                customerByOrder.put(created.get("id").asLong(), customerId);
+            }
+        }
+
+        Set<Integer> shards = customerByOrder.keySet().stream().map(shardRouter::shardOf).collect(Collectors.toSet());
+        assertEquals(shardRouter.shardCount(), shards.size());
+        customerByOrder.forEach((id, customerId) -> {
+            assertEquals(shardRouter.shardFor(customerId), shardRouter.shardOf(id));
+            assertTrue(shardRouter.onShard(shardRouter.shardOf(id), () -> orderRepository.existsById(id)));
+        });
+
+        cacheManager.getCache("orders").clear();
+        for (Map.Entry<Long, String> order : customerByOrder.entrySet()) {
+            mockMvc.perform(get("/orders/{id}", order.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customerId").value(order.getValue()));
+        }
+
+        MvcResult started = mockMvc.perform(get("/orders/export")).andReturn();
+        String export = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Set<Long> exported = new HashSet<>();
+        for (String line : export.lines().toList()) {
+            JsonNode row = objectMapper.readTree(line);
+            if (customerByOrder.containsKey(row.get("id").asLong())) {
+                exported.add(row.get("id").asLong());
+            }
+        }
+        assertEquals(customerByOrder.keySet(), exported);
+
+        for (String customerId : customers.values()) {
+            mockMvc.perform(get("/customers/{customerId}/order-summary", customerId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.orderCount").value(2));
+        }
+    }
+
+    @Test
+    void createOrders_shouldRejectABatchSpanningShardsWithoutCreatingAnything() {
+        List<CreateOrderRequest> batch = new ArrayList<>();
+        customers.values().forEach(customerId -> batch.add(order(customerId)));
+
+        assertThrows(OrderBatchSpansShardsException.class, () -> orderService.createOrders(batch));
+
+        for (Map.Entry<Integer, String> customer : customers.entrySet()) {
+            assertTrue(shardRouter.onShard(customer.getKey(), () ->
+                    orderRepository.findAll().stream().noneMatch(o -> o.getCustomerId().equals(customer.getValue()))));
+        }
+    }
+
+    private static CreateOrderRequest order(String customerId) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(1L);
+        item.setQuantity(1);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setItems(List.of(item));
+        return request;
+    }
+}
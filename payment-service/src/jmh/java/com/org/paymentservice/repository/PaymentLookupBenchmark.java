@@ -0,0 +1,91 @@
+package com.org.paymentservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Looks up a random payment by order_id against the schema produced by the Flyway migrations,
+// with tables of 10k to 10M rows. With the unique index the latency should stay flat as the
+// table grows; indexed=false drops it to show the full-scan baseline the index replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement findByOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // File-backed so ten million rows do not have to fit in the benchmark heap.
+        directory = Files.createTempDirectory("payment-lookup-benchmark");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + directory.resolve("payments") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO payments (order_id, amount, method, status, processed_at) "
+                    + "SELECT 'order-' || X, 10.00 + MOD(X, 500), 'CREDIT_CARD', 'PAID', CURRENT_TIMESTAMP "
+                    + "FROM SYSTEM_RANGE(1, " + rows + ")");
+            if (!indexed) {
+                statement.execute("ALTER TABLE payments DROP CONSTRAINT uk_payments_order_id");
+            }
+            statement.execute("ANALYZE");
+        }
+        findByOrderId = connection.prepareStatement(
+                "SELECT id, order_id, amount, method, status, processed_at FROM payments WHERE order_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException ignored) {
+            // SHUTDOWN closes the connection it runs on.
+        }
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long findByOrderId() throws SQLException {
+        findByOrderId.setString(1, "order-" + (1 + ThreadLocalRandom.current().nextInt(rows)));
+        try (ResultSet rs = findByOrderId.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
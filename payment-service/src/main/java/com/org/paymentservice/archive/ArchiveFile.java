@@ -0,0 +1,325 @@
+package com.org.paymentservice.archive;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable archive file. Payments are sorted by order id and cut into blocks; each block stores
+// its rows column by column (all order ids, then all amounts, and so on) and is deflated on its own.
+// The footer holds a sparse index with the first order id and position of every block, so a lookup
+// binary-searches the index in memory and inflates a single block. The footer also holds a bloom
+// filter of the order ids, so most lookups for an order the file does not hold stop in memory.
+//
+// Layout: MAGIC, blocks..., footer, footer length (int), MAGIC.
+public final class ArchiveFile implements Closeable {
+    private static final byte[] MAGIC = "PAYARC01".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int rowCount;
+    private final String[] blockFirstKeys;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final String lastKey;
+    private final BloomFilter orderIds;
+
+    private ArchiveFile(Path path, FileChannel channel, int rowCount, String[] blockFirstKeys,
+                        long[] blockOffsets, int[] blockLengths, String lastKey, BloomFilter orderIds) {
+        this.path = path;
+        this.channel = channel;
+        this.rowCount = rowCount;
+        this.blockFirstKeys = blockFirstKeys;
+        this.blockOffsets = blockOffsets;
+        this.blockLengths = blockLengths;
+        this.lastKey = lastKey;
+        this.orderIds = orderIds;
+    }
+
+    // Written to a temporary file, forced to disk and then renamed into place, so a file under its
+    // final name is always complete.
+    public static void write(Path target, List<Payment> payments, int blockSize) throws IOException {
+        List<Payment> sorted = new ArrayList<>(payments);
+        sorted.sort(Comparator.comparing(Payment::getOrderId));
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(out, ByteBuffer.wrap(MAGIC));
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            DataOutputStream index = new DataOutputStream(footer);
+            int blocks = (sorted.size() + blockSize - 1) / blockSize;
+            index.writeInt(sorted.size());
+            index.writeInt(blocks);
+            for (int start = 0; start < sorted.size(); start += blockSize) {
+                List<Payment> block = sorted.subList(start, Math.min(start + blockSize, sorted.size()));
+                byte[] compressed = deflate(encodeBlock(block));
+                index.writeUTF(block.get(0).getOrderId());
+                index.writeLong(out.position());
+                index.writeInt(compressed.length);
+                writeFully(out, ByteBuffer.wrap(compressed));
+            }
+            index.writeUTF(sorted.isEmpty() ? "" : sorted.get(sorted.size() - 1).getOrderId());
+            BloomFilter.of(sorted.stream().map(Payment::getOrderId).toList(), sorted.size()).write(index);
+            index.flush();
+            writeFully(out, ByteBuffer.wrap(footer.toByteArray()));
+            writeFully(out, ByteBuffer.allocate(4).putInt(0, footer.size()));
+            writeFully(out, ByteBuffer.wrap(MAGIC));
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ArchiveFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer tail = readFully(channel, size - 4 - MAGIC.length, 4 + MAGIC.length);
+            byte[] magic = new byte[MAGIC.length];
+            tail.position(4).get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a payment archive file: " + path);
+            }
+            int footerLength = tail.getInt(0);
+            ByteBuffer footer = readFully(channel, size - 4 - MAGIC.length - footerLength, footerLength);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()));
+            int rowCount = in.readInt();
+            int blocks = in.readInt();
+            String[] firstKeys = new String[blocks];
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                firstKeys[i] = in.readUTF();
+                offsets[i] = in.readLong();
+                lengths[i] = in.readInt();
+            }
+            String lastKey = in.readUTF();
+            BloomFilter orderIds = BloomFilter.read(in);
+            return new ArchiveFile(path, channel, rowCount, firstKeys, offsets, lengths, lastKey, orderIds);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public Optional<Payment> find(String orderId) throws IOException {
+        int block = blockFor(orderId);
+        if (block < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(readBlock(block).get(orderId));
+    }
+
+    // Reads each block holding one of the order ids once, however many of the ids fall into it.
+    public Map<String, Payment> findAll(Collection<String> orderIds) throws IOException {
+        Map<Integer, List<String>> byBlock = new TreeMap<>();
+        for (String orderId : orderIds) {
+            int block = blockFor(orderId);
+            if (block >= 0) {
+                byBlock.computeIfAbsent(block, b -> new ArrayList<>()).add(orderId);
+            }
+        }
+        Map<String, Payment> found = new HashMap<>();
+        for (Map.Entry<Integer, List<String>> entry : byBlock.entrySet()) {
+            Map<String, Payment> rows = readBlock(entry.getKey());
+            for (String orderId : entry.getValue()) {
+                Payment payment = rows.get(orderId);
+                if (payment != null) {
+                    found.put(orderId, payment);
+                }
+            }
+        }
+        return found;
+    }
+
+    // The last block whose first key is not after the order id, or -1 if the file cannot hold it.
+    private int blockFor(String orderId) {
+        if (!orderIds.mightContain(orderId)) {
+            return -1;
+        }
+        if (blockFirstKeys.length == 0 || orderId.compareTo(blockFirstKeys[0]) < 0 || orderId.compareTo(lastKey) > 0) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(blockFirstKeys, orderId);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private Map<String, Payment> readBlock(int block) throws IOException {
+        byte[] compressed = readFully(channel, blockOffsets[block], blockLengths[block]).array();
+        return decodeBlock(inflate(compressed));
+    }
+
+    private static byte[] encodeBlock(List<Payment> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(block.size());
+        writeColumn(out, block, (o, p) -> o.writeUTF(p.getOrderId()));
+        writeColumn(out, block, (o, p) -> o.writeLong(p.getId() != null ? p.getId() : 0));
+        writeColumn(out, block, (o, p) -> o.writeLong(p.getAmount().getMinorUnits()));
+        writeColumn(out, block, (o, p) -> writeNullable(o, p.getMethod()));
+        writeColumn(out, block, (o, p) -> o.writeUTF(p.getStatus().name()));
+        writeColumn(out, block, (o, p) -> {
+            o.writeBoolean(p.getProcessedAt() != null);
+            if (p.getProcessedAt() != null) {
+                o.writeLong(p.getProcessedAt().toEpochSecond(ZoneOffset.UTC));
+                o.writeInt(p.getProcessedAt().getNano());
+            }
+        });
+        writeColumn(out, block, (o, p) -> writeNullable(o, p.getFailureReason()));
+        writeColumn(out, block, (o, p) -> o.writeInt(p.getAttempts()));
+        writeColumn(out, block, (o, p) -> o.writeLong(p.getVersion() != null ? p.getVersion() : 0));
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Map<String, Payment> decodeBlock(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        List<Payment> rows = new ArrayList<>();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            rows.add(new Payment());
+        }
+        readColumn(in, rows, (i, p) -> p.setOrderId(i.readUTF()));
+        readColumn(in, rows, (i, p) -> p.setId(i.readLong()));
+        readColumn(in, rows, (i, p) -> p.setAmount(Money.ofMinor(i.readLong())));
+        readColumn(in, rows, (i, p) -> p.setMethod(readNullable(i)));
+        readColumn(in, rows, (i, p) -> p.setStatus(PaymentStatus.valueOf(i.readUTF())));
+        readColumn(in, rows, (i, p) -> {
+            if (i.readBoolean()) {
+                long seconds = i.readLong();
+                p.setProcessedAt(LocalDateTime.ofEpochSecond(seconds, i.readInt(), ZoneOffset.UTC));
+            }
+        });
+        readColumn(in, rows, (i, p) -> p.setFailureReason(readNullable(i)));
+        readColumn(in, rows, (i, p) -> p.setAttempts(i.readInt()));
+        readColumn(in, rows, (i, p) -> p.setVersion(i.readLong()));
+
+        Map<String, Payment> byOrderId = new HashMap<>(n * 2);
+        rows.forEach(payment -> byOrderId.put(payment.getOrderId(), payment));
+        return byOrderId;
+    }
+
+    private interface ColumnWriter {
+        void write(DataOutputStream out, Payment payment) throws IOException;
+    }
+
+    private interface ColumnReader {
+        void read(DataInputStream in, Payment payment) throws IOException;
+    }
+
+    private static void writeColumn(DataOutputStream out, List<Payment> rows, ColumnWriter column) throws IOException {
+        for (Payment payment : rows) {
+            column.write(out, payment);
+        }
+    }
+
+    private static void readColumn(DataInputStream in, List<Payment> rows, ColumnReader column) throws IOException {
+        for (Payment payment : rows) {
+            column.read(in, payment);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated archive block");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.org.paymentservice.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Order ids an archive file holds, answered from memory with about 1% false positives, so a
+// lookup for an order that was never archived reads no blocks at all. The hash is FNV-1a over the
+// UTF-8 bytes, which is fixed by the file format rather than by the JVM. Probe positions come from
+// its two halves (Kirsch and Mitzenmacher's double hashing).
+final class BloomFilter {
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    private final long[] words;
+    private final int hashes;
+
+    private BloomFilter(long[] words, int hashes) {
+        this.words = words;
+        this.hashes = hashes;
+    }
+
+    static BloomFilter of(Iterable<String> keys, int count) {
+        BloomFilter filter = new BloomFilter(new long[Math.max(1, (count * BITS_PER_KEY + 63) / 64)], HASHES);
+        keys.forEach(filter::add);
+        return filter;
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = probe(hash, i, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(hashes);
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter read(DataInputStream in) throws IOException {
+        int hashes = in.readInt();
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(words, hashes);
+    }
+
+    private void add(String key) {
+        long hash = hash(key);
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = probe(hash, i, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static long probe(long hash, int i, long bits) {
+        return Math.floorMod((int) hash + i * (int) (hash >>> 32), bits);
+    }
+
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,125 @@
+package com.org.paymentservice.archive;
+
+import com.org.paymentservice.model.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Cold storage for payments moved out of the payments table. Files are grouped into one directory
+// per processing date and never modified once written; every archival run adds new files. Lookups
+// go through the files newest first, so if a payment was archived twice the later copy wins.
+@Component
+public class PaymentArchive {
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchive.class);
+    private static final String SUFFIX = ".parc";
+
+    private final Path directory;
+    private final int blockSize;
+    private final List<ArchiveFile> files = new CopyOnWriteArrayList<>();
+    private final AtomicLong fileSequence = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PaymentArchive(MeterRegistry meterRegistry,
+                          @Value("${payments.archive.directory:./data/payment-archive}") Path directory,
+                          @Value("${payments.archive.block-size:1024}") int blockSize) {
+        this.directory = directory;
+        this.blockSize = blockSize;
+        this.hits = Counter.builder("payments.archive.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("payments.archive.lookups").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("payments.archive.files", List.of(), files);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<ArchiveFile> opened = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                opened.add(ArchiveFile.open(path));
+            }
+        }
+        opened.sort(Comparator.comparing((ArchiveFile file) -> file.path().getFileName().toString()).reversed());
+        files.addAll(opened);
+        log.info("Payment archive opened in {} with {} file(s)", directory, files.size());
+    }
+
+    public Optional<Payment> find(String orderId) {
+        try {
+            for (ArchiveFile file : files) {
+                Optional<Payment> payment = file.find(orderId);
+                if (payment.isPresent()) {
+                    hits.increment();
+                    return payment;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public Map<String, Payment> findAll(Collection<String> orderIds) {
+        Map<String, Payment> found = new HashMap<>();
+        List<String> remaining = new ArrayList<>(orderIds);
+        try {
+            for (ArchiveFile file : files) {
+                if (remaining.isEmpty()) {
+                    break;
+                }
+                found.putAll(file.findAll(remaining));
+                remaining.removeIf(found::containsKey);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return found;
+    }
+
+    // Writes one new file per processing date. Files are only visible to lookups once complete.
+    public void append(List<Payment> payments) throws IOException {
+        Map<LocalDate, List<Payment>> byDate = payments.stream()
+                .collect(Collectors.groupingBy(payment -> payment.getProcessedAt().toLocalDate()));
+        for (Map.Entry<LocalDate, List<Payment>> partition : byDate.entrySet()) {
+            Path dir = directory.resolve("processed_date=" + partition.getKey());
+            Files.createDirectories(dir);
+            // Names sort by creation, which is the newest-first order lookups rely on after a restart.
+            Path path = dir.resolve(String.format("payments-%013d-%06d%s",
+                    System.currentTimeMillis(), fileSequence.incrementAndGet() % 1_000_000, SUFFIX));
+            ArchiveFile.write(path, partition.getValue(), blockSize);
+            files.add(0, ArchiveFile.open(path));
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (ArchiveFile file : files) {
+            file.close();
+        }
+    }
+}
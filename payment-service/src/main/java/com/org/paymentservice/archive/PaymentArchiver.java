@@ -0,0 +1,96 @@
+package com.org.paymentservice.archive;
+
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves settled payments older than the configured age out of the payments table and into the
+// archive, a chunk at a time. Only payments that can no longer change are moved: PAID, or FAILED
+// with no retry to come. Each chunk is written to the archive before its rows are deleted, and a
+// row is only deleted if its version is unchanged, so a crash or a concurrent update at worst
+// leaves a payment in both places, where the table copy wins.
+@Component
+@ConditionalOnProperty(name = "payments.archive.enabled", havingValue = "true")
+public class PaymentArchiver {
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchiver.class);
+    private static final List<PaymentStatus> SETTLED = List.of(PaymentStatus.PAID, PaymentStatus.FAILED);
+
+    private final PaymentRepository repository;
+    private final PaymentArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Duration age;
+    private final int chunkSize;
+    private final Counter archived;
+
+    public PaymentArchiver(PaymentRepository repository,
+                           PaymentArchive archive,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${payments.archive.age:90d}") Duration age,
+                           @Value("${payments.archive.chunk-size:10000}") int chunkSize) {
+        this.repository = repository;
+        this.archive = archive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.age = age;
+        this.chunkSize = chunkSize;
+        this.archived = meterRegistry.counter("payments.archive.archived");
+    }
+
+    @Scheduled(fixedDelayString = "${payments.archive.interval:1h}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        int total = 0;
+        try {
+            List<Payment> chunk;
+            do {
+                chunk = repository.findByStatusInAndNextRetryAtIsNullAndProcessedAtBeforeOrderByIdAsc(
+                        SETTLED, cutoff, PageRequest.of(0, chunkSize));
+                if (!chunk.isEmpty()) {
+                    archive.append(chunk);
+                    total += delete(chunk);
+                }
+            } while (chunk.size() == chunkSize);
+        } catch (IOException | RuntimeException e) {
+            log.error("Payment archival failed after {} payment(s)", total, e);
+        }
+        if (total > 0) {
+            log.info("Archived {} payment(s) processed before {}", total, cutoff);
+        }
+    }
+
+    private int delete(List<Payment> chunk) {
+        int[][] counts = transaction.execute(status -> jdbcTemplate.batchUpdate(
+                "DELETE FROM payments WHERE id = ? AND version = ?", chunk, chunk.size(), (ps, payment) -> {
+                    ps.setLong(1, payment.getId());
+                    ps.setLong(2, payment.getVersion());
+                }));
+        int deleted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                deleted += count;
+            }
+        }
+        archived.increment(deleted);
+        return deleted;
+    }
+}
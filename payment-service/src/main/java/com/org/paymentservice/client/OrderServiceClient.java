@@ -0,0 +1,49 @@
+package com.org.paymentservice.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.paymentservice.model.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+// Reads orders from order-service's NDJSON export. Lines are parsed as they arrive and only the
+// id and total are kept, so a slice of orders costs no more than its totals.
+@Component
+public class OrderServiceClient {
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+
+    public OrderServiceClient(RestClient.Builder restClientBuilder,
+                              ObjectMapper objectMapper,
+                              @Value("${reconciliation.order-service.url:http://localhost:8082}") String url) {
+        this.restClient = restClientBuilder.baseUrl(url).build();
+        this.objectMapper = objectMapper;
+    }
+
+    public List<OrderTotal> fetchOrderTotals(long fromOrderId, long toOrderId) {
+        return restClient.get()
+                .uri(uri -> uri.path("/orders/export")
+                        .queryParam("fromId", fromOrderId)
+                        .queryParam("toId", toOrderId)
+                        .queryParam("format", "ndjson")
+                        .build())
+                .exchange((request, response) -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw new IllegalStateException("Order export for ids [" + fromOrderId + ", " + toOrderId
+                                + ") failed with status " + response.getStatusCode());
+                    }
+                    try (MappingIterator<OrderTotal> orders = objectMapper.readerFor(OrderTotal.class)
+                            .readValues(response.getBody())) {
+                        return orders.readAll();
+                    }
+                });
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record OrderTotal(long id, Money totalAmount) {
+    }
+}
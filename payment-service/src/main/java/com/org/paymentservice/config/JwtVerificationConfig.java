@@ -0,0 +1,49 @@
+package com.org.paymentservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.paymentservice.security.JwksKeySet;
+import com.org.paymentservice.security.JwtVerificationFilter;
+import com.org.paymentservice.security.JwtVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+// Opt-in local validation of auth-service tokens against its published key set.
+@Configuration
+@ConditionalOnProperty(name = "auth.jwt.enabled", havingValue = "true")
+public class JwtVerificationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public JwksKeySet jwksKeySet(RestClient.Builder restClientBuilder,
+                                 @Value("${auth.jwt.jwks-uri:http://localhost:8084/.well-known/jwks.json}") String jwksUri,
+                                 @Value("${auth.jwt.refresh-interval:5m}") Duration refreshInterval,
+                                 @Value("${auth.jwt.retry-interval:10s}") Duration retryInterval,
+                                 @Value("${auth.jwt.min-refetch-interval:30s}") Duration minRefetchInterval,
+                                 @Value("${auth.jwt.connect-timeout:2s}") Duration connectTimeout,
+                                 @Value("${auth.jwt.read-timeout:5s}") Duration readTimeout) {
+        // Bounded so a hung auth-service cannot stall startup or the refresh thread.
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return new JwksKeySet(restClientBuilder.baseUrl(jwksUri).requestFactory(requestFactory).build(),
+                refreshInterval, retryInterval, minRefetchInterval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtVerificationFilter> jwtVerificationFilter(
+            JwksKeySet keySet,
+            ObjectMapper objectMapper,
+            @Value("${auth.jwt.clock-skew:30s}") Duration clockSkew,
+            @Value("${auth.jwt.excluded-paths:/actuator/**}") List<String> excludedPaths) {
+        JwtVerifier verifier = new JwtVerifier(keySet, objectMapper, clockSkew, Clock.systemUTC());
+        return new FilterRegistrationBean<>(new JwtVerificationFilter(verifier, excludedPaths));
+    }
+}
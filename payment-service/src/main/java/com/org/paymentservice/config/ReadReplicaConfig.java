@@ -0,0 +1,60 @@
+package com.org.paymentservice.config;
+
+import com.org.paymentservice.replica.ReadWriteRoutingDataSource;
+import com.org.paymentservice.replica.ReplicaDataSources;
+import com.org.paymentservice.replica.ReplicationStandIn;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "payments.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // The primary keeps the spring.datasource settings; the replica gets its own pool, so status
+    // polling cannot take connections away from payment writes.
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSources replicaDataSources(DataSourceProperties properties,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${payments.replica.url}") String replicaUrl,
+                                                 @Value("${payments.replica.max-pool-size:10}") int replicaPoolSize) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("payments-primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("payments-replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(properties.determineUsername());
+        replica.setPassword(properties.determinePassword());
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReplicaDataSources(primary, replica);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaDataSources dataSources) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, dataSources.primary(),
+                ReadWriteRoutingDataSource.Target.REPLICA, dataSources.replica()));
+        routing.setDefaultTargetDataSource(dataSources.primary());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payments.replica.stand-in", havingValue = "true", matchIfMissing = true)
+    public ReplicationStandIn replicationStandIn(ReplicaDataSources dataSources) {
+        return new ReplicationStandIn(dataSources);
+    }
+}
@@ -0,0 +1,27 @@
+package com.org.paymentservice.controller;
+
+import com.org.paymentservice.dto.BatchPaymentRequest;
+import com.org.paymentservice.dto.BatchPaymentResponse;
+import com.org.paymentservice.service.PaymentBatchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/payments/batch")
+public class PaymentBatchController {
+
+    private final PaymentBatchService service;
+
+    public PaymentBatchController(PaymentBatchService service) {
+        this.service = service;
+    }
+
+    // 200 rather than 201: the outcome of each item, created or not, is in the body.
+    @PostMapping
+    public ResponseEntity<BatchPaymentResponse> processBatch(@RequestBody BatchPaymentRequest request) {
+        return ResponseEntity.ok(service.processBatch(request.getPayments()));
+    }
+}
@@ -2,10 +2,13 @@ package com.org.paymentservice.controller;
 
 import com.org.paymentservice.dto.PaymentRequest;
 import com.org.paymentservice.dto.PaymentResponse;
+import com.org.paymentservice.dto.PaymentStatsResponse;
 import com.org.paymentservice.service.PaymentService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 
@@ -24,8 +27,19 @@ public class PaymentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.processPayment(request));
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<PaymentStatsResponse> getStats() {
+        return ResponseEntity.ok(service.getStats());
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<PaymentResponse> getPayment(@PathVariable String orderId) {
         return ResponseEntity.ok(service.getPaymentByOrderId(orderId));
     }
+
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPaymentEvents(@PathVariable String orderId,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return service.subscribe(orderId, lastEventId);
+    }
 }
\ No newline at end of file
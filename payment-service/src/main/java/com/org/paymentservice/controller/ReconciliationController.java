@@ -0,0 +1,45 @@
+package com.org.paymentservice.controller;
+
+import com.org.paymentservice.dto.DiscrepancyResponse;
+import com.org.paymentservice.dto.ReconciliationRequest;
+import com.org.paymentservice.dto.ReconciliationResponse;
+import com.org.paymentservice.service.ReconciliationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reconciliations")
+public class ReconciliationController {
+
+    private final ReconciliationService service;
+
+    public ReconciliationController(ReconciliationService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReconciliationResponse> startReconciliation(@RequestBody @Valid ReconciliationRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.start(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReconciliationResponse> getReconciliation(@PathVariable Long id) {
+        return ResponseEntity.ok(service.getRun(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ReconciliationResponse> resumeReconciliation(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.resume(id));
+    }
+
+    @GetMapping("/{id}/discrepancies")
+    public ResponseEntity<List<DiscrepancyResponse>> getDiscrepancies(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(service.getDiscrepancies(id, page, size));
+    }
+}
@@ -0,0 +1,12 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchPaymentItemResponse {
+    private int index;
+    private String orderId;
+    private String outcome;
+    private String error;
+    private PaymentResponse payment;
+}
@@ -0,0 +1,10 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchPaymentRequest {
+    private List<PaymentRequest> payments;
+}
@@ -0,0 +1,14 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchPaymentResponse {
+    private int created;
+    private int existing;
+    private int duplicates;
+    private int invalid;
+    private List<BatchPaymentItemResponse> results;
+}
@@ -0,0 +1,14 @@
+package com.org.paymentservice.dto;
+
+import com.org.paymentservice.model.Money;
+import lombok.Data;
+
+@Data
+public class DiscrepancyResponse {
+    private String orderId;
+    private String type;
+    private Money orderAmount;
+    private Money paymentAmount;
+    private String paymentStatus;
+    private int paymentCount;
+}
@@ -0,0 +1,12 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class MethodStatsResponse {
+    private String method;
+    private Double successRatio;
+    private Map<String, StatusStatsResponse> byStatus;
+}
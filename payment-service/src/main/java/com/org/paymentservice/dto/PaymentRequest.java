@@ -1,12 +1,27 @@
 package com.org.paymentservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.org.paymentservice.model.Money;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 public class PaymentRequest {
+    @NotBlank
     private String orderId;
-    private BigDecimal amount;
+
+    @NotNull
+    private Money amount;
+
+    @NotBlank
     private String method;
+
+    // Money is not a number to Bean Validation, so @Positive cannot be used on it.
+    @JsonIgnore
+    @AssertTrue(message = "amount must be positive")
+    public boolean isAmountPositive() {
+        return amount == null || amount.isPositive();
+    }
 }
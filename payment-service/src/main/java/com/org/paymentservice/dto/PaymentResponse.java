@@ -1,15 +1,18 @@
 package com.org.paymentservice.dto;
 
+import com.org.paymentservice.model.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 public class PaymentResponse {
     private String orderId;
-    private BigDecimal amount;
+    private Money amount;
     private String method;
     private String status;
     private LocalDateTime processedAt;
+    private String failureReason;
+    private int attempts;
+    private LocalDateTime nextRetryAt;
 }
\ No newline at end of file
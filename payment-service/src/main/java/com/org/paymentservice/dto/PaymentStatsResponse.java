@@ -0,0 +1,11 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PaymentStatsResponse {
+    private long windowSeconds;
+    private List<MethodStatsResponse> methods;
+}
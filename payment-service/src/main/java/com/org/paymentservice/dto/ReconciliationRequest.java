@@ -0,0 +1,15 @@
+package com.org.paymentservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class ReconciliationRequest {
+    @NotNull
+    @PositiveOrZero
+    private Long fromOrderId;
+
+    @NotNull
+    private Long toOrderId;
+}
@@ -0,0 +1,19 @@
+package com.org.paymentservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReconciliationResponse {
+    private Long id;
+    private String status;
+    private long fromOrderId;
+    private long toOrderId;
+    private long processedOrderIds;
+    private long totalOrderIds;
+    private long discrepancyCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.org.paymentservice.dto;
+
+import com.org.paymentservice.model.Money;
+import lombok.Data;
+
+@Data
+public class StatusStatsResponse {
+    private long count;
+    private Money totalAmount;
+    private Money p50;
+    private Money p90;
+    private Money p99;
+}
@@ -0,0 +1,192 @@
+package com.org.paymentservice.event;
+
+import com.org.paymentservice.dto.PaymentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans payment status changes out to SSE subscribers, keyed by order id. An idle subscriber is
+// just an SseEmitter on an async servlet request, so holding tens of thousands costs no threads.
+// Event ids are the payment's version, which lets a reconnecting client skip what it has seen.
+// Writes happen on a small sender pool, never on the publishing thread: publish is called from
+// gateway callbacks, and a slow client must not hold those up.
+@Component
+public class PaymentEventHub {
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventHub.class);
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final long timeoutMillis;
+    private final Executor sender;
+
+    @Autowired
+    public PaymentEventHub(MeterRegistry meterRegistry,
+                           @Value("${payments.events.timeout:30m}") Duration timeout,
+                           @Value("${payments.events.sender-threads:4}") int senderThreads) {
+        this(meterRegistry, timeout,
+                Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("payment-events-")));
+    }
+
+    PaymentEventHub(MeterRegistry meterRegistry, Duration timeout, Executor sender) {
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = sender;
+        meterRegistry.gauge("payments.events.subscribers", subscriberCount);
+    }
+
+    public SseEmitter subscribe(String orderId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(orderId, emitter, lastEventId != null ? lastEventId : -1);
+        subscribers.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    // Safe to call with the same version more than once, or out of order: each subscriber only
+    // receives versions newer than the last one it was offered. Returns without waiting for the write.
+    public void publish(PaymentResponse payment, long version) {
+        Set<Subscriber> forOrder = subscribers.get(payment.getOrderId());
+        if (forOrder != null) {
+            forOrder.forEach(subscriber -> subscriber.offer(payment, version));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payments.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        subscribers.values().forEach(forOrder -> forOrder.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.orderId, (id, forOrder) -> {
+            if (forOrder.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return forOrder.isEmpty() ? null : forOrder;
+        });
+    }
+
+    // Holds at most one status event and one heartbeat: a newer status replaces one not yet
+    // written, since clients only need the latest state. A single drain task per subscriber keeps
+    // its writes in order.
+    private class Subscriber {
+        private final String orderId;
+        private final SseEmitter emitter;
+        private long offeredVersion;
+        private PaymentResponse pending;
+        private long pendingVersion;
+        private boolean heartbeatDue;
+        private boolean draining;
+
+        Subscriber(String orderId, SseEmitter emitter, long lastEventId) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+            this.offeredVersion = lastEventId;
+        }
+
+        void offer(PaymentResponse payment, long version) {
+            synchronized (this) {
+                if (version <= offeredVersion) {
+                    return;
+                }
+                offeredVersion = version;
+                pending = payment;
+                pendingVersion = version;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the stream is closed with the server.
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                PaymentResponse payment;
+                long version;
+                boolean heartbeat;
+                synchronized (this) {
+                    payment = pending;
+                    version = pendingVersion;
+                    // A status event keeps the connection alive as well as a heartbeat does.
+                    heartbeat = heartbeatDue;
+                    pending = null;
+                    heartbeatDue = false;
+                    if (payment == null && !heartbeat) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (payment != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(version))
+                                .name("payment-status")
+                                .data(payment, MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    fail(e);
+                    return;
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            log.debug("Dropping payment event subscriber for order {}", orderId, e);
+            remove(this);
+            emitter.completeWithError(e);
+        }
+    }
+}
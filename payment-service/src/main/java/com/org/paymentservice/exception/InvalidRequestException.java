@@ -0,0 +1,9 @@
+package com.org.paymentservice.exception;
+
+// Input the client got wrong; mapped to 400. Other IllegalArgumentExceptions are bugs, not bad input.
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.org.paymentservice.exception;
+
+public class PaymentGatewayBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PaymentGatewayBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
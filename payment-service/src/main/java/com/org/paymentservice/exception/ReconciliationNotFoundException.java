@@ -0,0 +1,8 @@
+package com.org.paymentservice.exception;
+
+public class ReconciliationNotFoundException extends RuntimeException {
+
+    public ReconciliationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.org.paymentservice.gateway;
+
+import com.org.paymentservice.model.Money;
+
+// The processor charges at most once per idempotency key and answers a repeated key with the
+// first answer, so a charge whose answer was lost can be sent again safely under the same key.
+public record GatewayCharge(String orderId, Money amount, String method, String idempotencyKey) {
+
+    // One key per attempt: a retry after a decline is a new charge, a re-send of a lost one is not.
+    public static String idempotencyKey(String orderId, int attempt) {
+        return orderId + ":" + attempt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.org.paymentservice.gateway;
+
+// A soft decline may succeed if tried again later; a hard decline (stolen card, closed account)
+// will not. An unknown outcome is a timeout or error after the charge was sent: the processor may
+// or may not have taken the money, so only a status inquiry can tell.
+public record GatewayResult(Outcome outcome, String reason) {
+
+    public enum Outcome {
+        APPROVED, SOFT_DECLINE, HARD_DECLINE, UNKNOWN
+    }
+
+    public static GatewayResult success() {
+        return new GatewayResult(Outcome.APPROVED, null);
+    }
+
+    public static GatewayResult declined(String reason) {
+        return new GatewayResult(Outcome.SOFT_DECLINE, reason);
+    }
+
+    public static GatewayResult hardDeclined(String reason) {
+        return new GatewayResult(Outcome.HARD_DECLINE, reason);
+    }
+
+    public static GatewayResult unknown(String reason) {
+        return new GatewayResult(Outcome.UNKNOWN, reason);
+    }
+
+    public boolean approved() {
+        return outcome == Outcome.APPROVED;
+    }
+}
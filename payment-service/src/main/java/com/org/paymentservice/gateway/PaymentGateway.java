@@ -0,0 +1,16 @@
+package com.org.paymentservice.gateway;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// SPI for the processor that actually moves the money. Implementations must not block the
+// caller: the returned future completes when the processor answers. Timeouts and concurrency
+// limits are applied by PaymentGatewayClient, not by the implementation. Charges are idempotent
+// on GatewayCharge.idempotencyKey.
+public interface PaymentGateway {
+    CompletableFuture<GatewayResult> charge(GatewayCharge charge);
+
+    // What the processor made of an earlier charge with the same idempotency key, or empty if it
+    // never received it, in which case the charge is safe to send again.
+    CompletableFuture<Optional<GatewayResult>> status(GatewayCharge charge);
+}
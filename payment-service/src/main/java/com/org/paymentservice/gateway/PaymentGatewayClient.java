@@ -0,0 +1,128 @@
+package com.org.paymentservice.gateway;
+
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Wraps the configured PaymentGateway with a timeout and a bulkhead. The bulkhead caps the
+// charges in flight so a slow processor cannot pile up unbounded work; callers reserve a slot
+// before committing to a charge and are turned away with a retryable error when none is free.
+@Component
+public class PaymentGatewayClient {
+    private final PaymentGateway gateway;
+    private final Semaphore bulkhead;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    private final ExecutorService callbackExecutor;
+
+    public PaymentGatewayClient(PaymentGateway gateway,
+                                MeterRegistry meterRegistry,
+                                @Value("${payments.gateway.timeout:5s}") Duration timeout,
+                                @Value("${payments.gateway.max-concurrent:200}") int maxConcurrent,
+                                @Value("${payments.gateway.callback-threads:4}") int callbackThreads,
+                                @Value("${payments.gateway.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.gateway = gateway;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.timeout = timeout;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Gateway answers are handled here rather than on the gateway's own I/O threads.
+        this.callbackExecutor = Executors.newFixedThreadPool(callbackThreads,
+                new CustomizableThreadFactory("payment-gateway-callback-"));
+        meterRegistry.gauge("payments.gateway.in.flight", bulkhead, b -> maxConcurrent - b.availablePermits());
+    }
+
+    public Reservation reserve() {
+        if (!bulkhead.tryAcquire()) {
+            throw new PaymentGatewayBusyException("Payment gateway is at capacity", retryAfterSeconds);
+        }
+        return new Reservation();
+    }
+
+    // For bulk work that would rather queue for a slot than be turned away straight away.
+    public Reservation reserve(Duration maxWait) {
+        try {
+            if (bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                return new Reservation();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new PaymentGatewayBusyException("Payment gateway is at capacity", retryAfterSeconds);
+    }
+
+    // Holds one bulkhead slot. It is released when the charge completes, or by close() if the
+    // caller decides not to charge after all.
+    public class Reservation implements AutoCloseable {
+        private boolean released;
+
+        private Reservation() {
+        }
+
+        // Errors and timeouts are reported as an unknown outcome: the processor may have charged
+        // before the answer was lost, so the caller must not simply charge again.
+        public CompletableFuture<GatewayResult> charge(GatewayCharge charge) {
+            CompletableFuture<GatewayResult> answer;
+            try {
+                answer = gateway.charge(charge);
+            } catch (RuntimeException e) {
+                answer = CompletableFuture.failedFuture(e);
+            }
+            return answer
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handleAsync((result, error) -> {
+                        close();
+                        return error == null ? result : GatewayResult.unknown(describe(error));
+                    }, callbackExecutor);
+        }
+
+        // Asks what became of an earlier charge, under the same timeout. Unlike charge(), the slot is
+        // kept on success so the caller can send the charge again with it; close() it otherwise.
+        // A failed or timed-out inquiry releases the slot and completes exceptionally.
+        public CompletableFuture<Optional<GatewayResult>> inquire(GatewayCharge charge) {
+            CompletableFuture<Optional<GatewayResult>> answer;
+            try {
+                answer = gateway.status(charge);
+            } catch (RuntimeException e) {
+                answer = CompletableFuture.failedFuture(e);
+            }
+            return answer
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenCompleteAsync((result, error) -> {
+                        if (error != null) {
+                            close();
+                        }
+                    }, callbackExecutor);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                bulkhead.release();
+            }
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "Gateway timeout" : "Gateway error: " + cause.getMessage();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callbackExecutor.shutdown();
+    }
+}
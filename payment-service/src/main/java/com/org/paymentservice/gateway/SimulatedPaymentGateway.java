@@ -0,0 +1,104 @@
+package com.org.paymentservice.gateway;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Stand-in processor for local runs and load tests. Answers arrive after a uniformly distributed
+// latency, with a configurable share of slow answers, soft and hard declines, and errors. Answers
+// are scheduled rather than slept on, so thousands of charges in flight cost no threads. Answers
+// are remembered by idempotency key, for status inquiries and for repeated charges; an error means
+// the simulated processor never took the charge.
+@Component
+@ConditionalOnProperty(name = "payments.gateway.type", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("simulated-gateway-"));
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final double slowRate;
+    private final long slowLatencyMillis;
+    private final double declineRate;
+    private final double hardDeclineRate;
+    private final double errorRate;
+    private final Map<String, GatewayResult> answered = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GatewayResult> eldest) {
+            return size() > 100_000;
+        }
+    });
+
+    public SimulatedPaymentGateway(@Value("${payments.gateway.simulated.min-latency:50ms}") Duration minLatency,
+                                   @Value("${payments.gateway.simulated.max-latency:500ms}") Duration maxLatency,
+                                   @Value("${payments.gateway.simulated.slow-rate:0.01}") double slowRate,
+                                   @Value("${payments.gateway.simulated.slow-latency:10s}") Duration slowLatency,
+                                   @Value("${payments.gateway.simulated.decline-rate:0.1}") double declineRate,
+                                   @Value("${payments.gateway.simulated.hard-decline-rate:0.02}") double hardDeclineRate,
+                                   @Value("${payments.gateway.simulated.error-rate:0.02}") double errorRate) {
+        this.minLatencyMillis = minLatency.toMillis();
+        this.maxLatencyMillis = Math.max(maxLatency.toMillis(), minLatencyMillis);
+        this.slowRate = slowRate;
+        this.slowLatencyMillis = slowLatency.toMillis();
+        this.declineRate = declineRate;
+        this.hardDeclineRate = hardDeclineRate;
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(GatewayCharge charge) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = random.nextDouble() < slowRate
+                ? slowLatencyMillis
+                : random.nextLong(minLatencyMillis, maxLatencyMillis + 1);
+        double outcome = random.nextDouble();
+
+        CompletableFuture<GatewayResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            GatewayResult earlier = answered.get(charge.idempotencyKey());
+            if (earlier != null) {
+                result.complete(earlier);
+            } else if (outcome < errorRate) {
+                result.completeExceptionally(new IllegalStateException("Simulated gateway error"));
+            } else {
+                GatewayResult answer;
+                if (outcome < errorRate + hardDeclineRate) {
+                    answer = GatewayResult.hardDeclined("Card reported stolen");
+                } else if (outcome < errorRate + hardDeclineRate + declineRate) {
+                    answer = GatewayResult.declined("Insufficient funds");
+                } else {
+                    answer = GatewayResult.success();
+                }
+                answered.put(charge.idempotencyKey(), answer);
+                result.complete(answer);
+            }
+        }, latency, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Optional<GatewayResult>> status(GatewayCharge charge) {
+        long latency = ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1);
+        CompletableFuture<Optional<GatewayResult>> result = new CompletableFuture<>();
+        scheduler.schedule(() -> result.complete(Optional.ofNullable(answered.get(charge.idempotencyKey()))),
+                latency, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
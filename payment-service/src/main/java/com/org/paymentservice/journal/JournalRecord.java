@@ -0,0 +1,110 @@
+package com.org.paymentservice.journal;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+// Full state of one payment at one version. Version 0 is the claim that inserts the row; later
+// versions update it, so replaying a record twice or out of order is harmless.
+public record JournalRecord(long sequence,
+                            String orderId,
+                            long amountMinor,
+                            String method,
+                            PaymentStatus status,
+                            LocalDateTime processedAt,
+                            String failureReason,
+                            long version,
+                            int attempts,
+                            LocalDateTime nextRetryAt,
+                            LocalDateTime chargedAt) {
+
+    static JournalRecord of(long sequence, Payment payment) {
+        return new JournalRecord(sequence,
+                payment.getOrderId(),
+                payment.getAmount().getMinorUnits(),
+                payment.getMethod(),
+                payment.getStatus(),
+                payment.getProcessedAt(),
+                payment.getFailureReason(),
+                payment.getVersion(),
+                payment.getAttempts(),
+                payment.getNextRetryAt(),
+                payment.getChargedAt());
+    }
+
+    public Payment toPayment() {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.ofMinor(amountMinor));
+        payment.setMethod(method);
+        payment.setStatus(status);
+        payment.setProcessedAt(processedAt);
+        payment.setFailureReason(failureReason);
+        payment.setVersion(version);
+        payment.setAttempts(attempts);
+        payment.setNextRetryAt(nextRetryAt);
+        payment.setChargedAt(chargedAt);
+        return payment;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeUTF(orderId);
+            out.writeLong(amountMinor);
+            writeNullable(out, method);
+            out.writeUTF(status.name());
+            writeNullable(out, processedAt != null ? processedAt.toString() : null);
+            writeNullable(out, failureReason);
+            out.writeLong(version);
+            out.writeInt(attempts);
+            writeNullable(out, nextRetryAt != null ? nextRetryAt.toString() : null);
+            writeNullable(out, chargedAt != null ? chargedAt.toString() : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalRecord decode(ByteBuffer payload) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        long sequence = in.readLong();
+        String orderId = in.readUTF();
+        long amountMinor = in.readLong();
+        String method = readNullable(in);
+        PaymentStatus status = PaymentStatus.valueOf(in.readUTF());
+        String processedAt = readNullable(in);
+        String failureReason = readNullable(in);
+        long version = in.readLong();
+        int attempts = in.readInt();
+        String nextRetryAt = readNullable(in);
+        String chargedAt = readNullable(in);
+        return new JournalRecord(sequence, orderId, amountMinor, method, status,
+                processedAt != null ? LocalDateTime.parse(processedAt) : null, failureReason, version,
+                attempts, nextRetryAt != null ? LocalDateTime.parse(nextRetryAt) : null,
+                chargedAt != null ? LocalDateTime.parse(chargedAt) : null);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.org.paymentservice.journal;
+
+// An append whose record could not be made durable. It carries the sequence the record was given,
+// since that sequence is used up either way.
+public class JournalWriteException extends RuntimeException {
+    private final long sequence;
+
+    public JournalWriteException(long sequence, Throwable cause) {
+        super("Journal record " + sequence + " could not be made durable", cause);
+        this.sequence = sequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
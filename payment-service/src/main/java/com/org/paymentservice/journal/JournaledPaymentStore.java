@@ -0,0 +1,437 @@
+package com.org.paymentservice.journal;
+
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.repository.PaymentRepository;
+import com.org.paymentservice.repository.PaymentStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Journal mode: a payment write is acknowledged once its record is durable in the journal, and a
+// single applier thread copies records into the payments table in large batches afterwards.
+// Until a record is applied, its payment is served from memory, so reads see their own writes.
+// On startup, records the table has not seen yet are replayed from the journal.
+//
+// Appends become durable in one order and reach the applier in whatever order their writers wake
+// up, so a record can be applied before one with a lower sequence. The journal is therefore only
+// checkpointed up to the applied low-watermark: the highest sequence at or below which every
+// record has been applied or was never acknowledged.
+@Component
+@ConditionalOnProperty(name = "payments.journal.enabled", havingValue = "true")
+public class JournaledPaymentStore implements PaymentStore, HealthIndicator {
+    private static final Logger log = LoggerFactory.getLogger(JournaledPaymentStore.class);
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+
+    private static final String INSERT = "INSERT INTO payments (order_id, amount, method, status, processed_at, failure_reason, version, "
+            + "attempts, next_retry_at, charged_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE payments SET status = ?, processed_at = ?, failure_reason = ?, version = ?, "
+            + "attempts = ?, next_retry_at = ?, charged_at = ? WHERE order_id = ? AND version < ?";
+
+    private final PaymentRepository repository;
+    private final PaymentJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int applyBatchSize;
+    // Latest journaled state of each payment the table does not have yet.
+    private final Map<String, Payment> unapplied = new ConcurrentHashMap<>();
+    private final BlockingQueue<Applied> applyQueue = new LinkedBlockingQueue<>();
+    // Owned by the applier thread: the low-watermark, the sequences done above it, and the last
+    // sequence written as the checkpoint.
+    private long appliedThrough;
+    private long checkpointedThrough;
+    private final TreeSet<Long> appliedAhead = new TreeSet<>();
+
+    private Thread applier;
+    private volatile boolean running;
+    private volatile Exception applyFailure;
+
+    public JournaledPaymentStore(PaymentRepository repository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payments.journal.directory:./data/payment-journal}") Path directory,
+                                 @Value("${payments.journal.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${payments.journal.apply-batch-size:500}") int applyBatchSize) {
+        this(repository, jdbcTemplate, transactionManager, meterRegistry,
+                new PaymentJournal(directory, (int) segmentSize.toBytes()), applyBatchSize);
+    }
+
+    JournaledPaymentStore(PaymentRepository repository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          PaymentJournal journal,
+                          int applyBatchSize) {
+        this.repository = repository;
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.applyBatchSize = applyBatchSize;
+        meterRegistry.gaugeMapSize("payments.journal.unapplied", List.of(), unapplied);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        List<JournalRecord> replay = journal.open();
+        for (int i = 0; i < replay.size(); i += applyBatchSize) {
+            apply(replay.subList(i, Math.min(i + applyBatchSize, replay.size())));
+        }
+        if (!replay.isEmpty()) {
+            journal.checkpoint(replay.get(replay.size() - 1).sequence());
+        }
+        appliedThrough = journal.lastSequence();
+        checkpointedThrough = appliedThrough;
+        running = true;
+        applier = new Thread(this::applyLoop, "payment-journal-applier");
+        applier.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        journal.close();
+        running = false;
+        applier.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @Override
+    public Optional<Payment> findByOrderId(String orderId) {
+        Payment pending = unapplied.get(orderId);
+        return pending != null ? Optional.of(copy(pending)) : repository.findByOrderId(orderId);
+    }
+
+    // The in-memory map is the claim. An entry only leaves it after its row is committed, so once
+    // a claim wins here, the table check afterwards sees any earlier claim that was already applied.
+    @Override
+    public Claim claim(Payment payment) {
+        Payment claimed = copy(payment);
+        claimed.setVersion(0L);
+        Payment existing = unapplied.putIfAbsent(claimed.getOrderId(), claimed);
+        if (existing != null) {
+            return new Claim(copy(existing), false);
+        }
+        Optional<Payment> stored = repository.findByOrderId(claimed.getOrderId());
+        if (stored.isPresent()) {
+            unapplied.remove(claimed.getOrderId(), claimed);
+            return new Claim(stored.get(), false);
+        }
+        try {
+            append(claimed);
+        } catch (RuntimeException e) {
+            unapplied.remove(claimed.getOrderId(), claimed);
+            throw e;
+        }
+        return new Claim(copy(claimed), true);
+    }
+
+    // Same protocol as claim(), but the table is checked with one lookup and all records are
+    // appended before waiting on any, so the whole batch shares a few group commits.
+    @Override
+    public List<Claim> claimAll(List<Payment> payments) {
+        Claim[] claims = new Claim[payments.size()];
+        List<Payment> won = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            Payment claimed = copy(payments.get(i));
+            claimed.setVersion(0L);
+            Payment existing = unapplied.putIfAbsent(claimed.getOrderId(), claimed);
+            if (existing != null) {
+                claims[i] = new Claim(copy(existing), false);
+            } else {
+                won.add(claimed);
+            }
+        }
+
+        Map<String, Payment> stored = new HashMap<>();
+        repository.findByOrderIdInChunks(won.stream().map(Payment::getOrderId).toList())
+                .forEach(payment -> stored.put(payment.getOrderId(), payment));
+        List<Payment> fresh = new ArrayList<>();
+        for (Payment claimed : won) {
+            if (stored.containsKey(claimed.getOrderId())) {
+                unapplied.remove(claimed.getOrderId(), claimed);
+            } else {
+                fresh.add(claimed);
+            }
+        }
+
+        List<CompletableFuture<JournalRecord>> durable = new ArrayList<>(fresh.size());
+        int queued = 0;
+        try {
+            fresh.forEach(claimed -> durable.add(journal.append(claimed)));
+            for (; queued < fresh.size(); queued++) {
+                JournalRecord record = durable.get(queued).join();
+                applyQueue.add(new Applied(record.sequence(), record, fresh.get(queued)));
+            }
+        } catch (RuntimeException e) {
+            // As in claim(), claims not confirmed durable are released.
+            for (int i = queued; i < fresh.size(); i++) {
+                unapplied.remove(fresh.get(i).getOrderId(), fresh.get(i));
+            }
+            for (int i = queued; i < durable.size(); i++) {
+                skip(durable.get(i));
+            }
+            throw e;
+        }
+
+        Map<String, Payment> created = new HashMap<>();
+        fresh.forEach(claimed -> created.put(claimed.getOrderId(), claimed));
+        for (int i = 0; i < payments.size(); i++) {
+            if (claims[i] == null) {
+                String orderId = payments.get(i).getOrderId();
+                claims[i] = stored.containsKey(orderId)
+                        ? new Claim(stored.get(orderId), false)
+                        : new Claim(copy(created.get(orderId)), true);
+            }
+        }
+        return List.of(claims);
+    }
+
+    // The entry goes in before the append so the applier can never remove it ahead of the put. If
+    // the append fails, the previous state comes back unless a newer write replaced it meanwhile.
+    @Override
+    public Payment update(Payment payment) {
+        Payment updated = copy(payment);
+        updated.setVersion((payment.getVersion() != null ? payment.getVersion() : 0L) + 1);
+        Payment previous = unapplied.put(updated.getOrderId(), updated);
+        try {
+            append(updated);
+        } catch (RuntimeException e) {
+            if (previous != null) {
+                unapplied.replace(updated.getOrderId(), updated, previous);
+            } else {
+                unapplied.remove(updated.getOrderId(), updated);
+            }
+            throw e;
+        }
+        return copy(updated);
+    }
+
+    // Journaled state wins over the table for payments it has not caught up with yet.
+    @Override
+    public List<Payment> findScheduledRetries() {
+        Map<String, Payment> latest = new HashMap<>();
+        repository.findByStatusAndNextRetryAtIsNotNull(PaymentStatus.FAILED)
+                .forEach(payment -> latest.put(payment.getOrderId(), payment));
+        unapplied.values().forEach(payment -> latest.put(payment.getOrderId(), copy(payment)));
+        return latest.values().stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.FAILED && payment.getNextRetryAt() != null)
+                .toList();
+    }
+
+    @Override
+    public List<Payment> findStalePending(LocalDateTime chargedBefore, int limit) {
+        Map<String, Payment> latest = new HashMap<>();
+        repository.findByStatusAndChargedAtBeforeOrderByIdAsc(PaymentStatus.PENDING, chargedBefore, PageRequest.of(0, limit))
+                .forEach(payment -> latest.put(payment.getOrderId(), payment));
+        unapplied.values().forEach(payment -> latest.put(payment.getOrderId(), copy(payment)));
+        return latest.values().stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING
+                        && payment.getChargedAt() != null && payment.getChargedAt().isBefore(chargedBefore))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Payment> findAwaitingCharge(int limit) {
+        Map<String, Payment> latest = new HashMap<>();
+        repository.findByStatusAndChargedAtIsNullOrderByIdAsc(PaymentStatus.PENDING, PageRequest.of(0, limit))
+                .forEach(payment -> latest.put(payment.getOrderId(), payment));
+        unapplied.values().forEach(payment -> latest.put(payment.getOrderId(), copy(payment)));
+        return latest.values().stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING && payment.getChargedAt() == null)
+                .limit(limit)
+                .toList();
+    }
+
+    private void append(Payment payment) {
+        CompletableFuture<JournalRecord> durable = journal.append(payment);
+        JournalRecord record;
+        try {
+            record = durable.join();
+        } catch (RuntimeException e) {
+            skip(durable);
+            throw e;
+        }
+        applyQueue.add(new Applied(record.sequence(), record, payment));
+    }
+
+    // A record whose writer was not told it is durable is not applied, but its sequence still has to
+    // reach the applier, or the low-watermark would stop below it for good.
+    private void skip(CompletableFuture<JournalRecord> durable) {
+        durable.whenComplete((record, failure) -> {
+            if (record != null) {
+                applyQueue.add(new Applied(record.sequence(), null, null));
+            } else if (failure instanceof JournalWriteException write) {
+                applyQueue.add(new Applied(write.getSequence(), null, null));
+            }
+        });
+    }
+
+    // A batch that fails to apply is retried as is, with backoff, and nothing behind it is taken
+    // until it succeeds: checkpointing a later batch would delete the segments holding the failed
+    // records. Health reports DOWN meanwhile. On shutdown the batch is left to the next start's replay.
+    private void applyLoop() {
+        List<Applied> batch = new ArrayList<>(applyBatchSize);
+        long retryDelayMillis = INITIAL_RETRY_DELAY_MILLIS;
+        while (running || !applyQueue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Applied first = applyQueue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    applyQueue.drainTo(batch, applyBatchSize - 1);
+                }
+                List<JournalRecord> records = batch.stream().map(Applied::record).filter(Objects::nonNull).toList();
+                if (!records.isEmpty()) {
+                    apply(records);
+                }
+                batch.forEach(applied -> advance(applied.sequence()));
+                if (appliedThrough > checkpointedThrough) {
+                    journal.checkpoint(appliedThrough);
+                    checkpointedThrough = appliedThrough;
+                }
+                batch.stream().filter(applied -> applied.payment() != null)
+                        .forEach(applied -> unapplied.remove(applied.payment().getOrderId(), applied.payment()));
+                batch.clear();
+                applyFailure = null;
+                retryDelayMillis = INITIAL_RETRY_DELAY_MILLIS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                applyFailure = e;
+                if (!running) {
+                    log.error("Failed to apply {} journal record(s); they are replayed on the next start", batch.size(), e);
+                    return;
+                }
+                log.error("Failed to apply {} journal record(s); retrying in {} ms", batch.size(), retryDelayMillis, e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                retryDelayMillis = Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void advance(long sequence) {
+        if (sequence > appliedThrough) {
+            appliedAhead.add(sequence);
+        }
+        while (!appliedAhead.isEmpty() && appliedAhead.first() == appliedThrough + 1) {
+            appliedThrough = appliedAhead.pollFirst();
+        }
+    }
+
+    @Override
+    public Health health() {
+        Exception failure = applyFailure;
+        Health.Builder health = failure == null ? Health.up() : Health.down(failure);
+        return health.withDetail("unapplied", unapplied.size()).build();
+    }
+
+    // Inserts go first so a claim and its update in the same batch land in the right order. The
+    // version guard makes updates idempotent, and inserts for rows that already exist (a replay
+    // after a crash between commit and checkpoint) are skipped one by one.
+    private void apply(List<JournalRecord> records) {
+        List<JournalRecord> inserts = records.stream().filter(record -> record.version() == 0).toList();
+        List<JournalRecord> updates = records.stream().filter(record -> record.version() > 0).toList();
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT, inserts, inserts.size(), this::bindInsert);
+                jdbcTemplate.batchUpdate(UPDATE, updates, updates.size(), this::bindUpdate);
+            });
+        } catch (DataIntegrityViolationException e) {
+            for (JournalRecord record : inserts) {
+                try {
+                    jdbcTemplate.update(INSERT, ps -> bindInsert(ps, record));
+                } catch (DataIntegrityViolationException alreadyApplied) {
+                    log.debug("Journal record {} for order {} already applied", record.sequence(), record.orderId());
+                }
+            }
+            jdbcTemplate.batchUpdate(UPDATE, updates, updates.size(), this::bindUpdate);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, JournalRecord record) throws SQLException {
+        Payment payment = record.toPayment();
+        ps.setString(1, record.orderId());
+        ps.setBigDecimal(2, payment.getAmount().toBigDecimal());
+        ps.setString(3, record.method());
+        ps.setString(4, record.status().name());
+        ps.setTimestamp(5, record.processedAt() != null ? Timestamp.valueOf(record.processedAt()) : null);
+        ps.setString(6, record.failureReason());
+        ps.setLong(7, record.version());
+        ps.setInt(8, record.attempts());
+        ps.setTimestamp(9, record.nextRetryAt() != null ? Timestamp.valueOf(record.nextRetryAt()) : null);
+        ps.setTimestamp(10, record.chargedAt() != null ? Timestamp.valueOf(record.chargedAt()) : null);
+    }
+
+    private void bindUpdate(PreparedStatement ps, JournalRecord record) throws SQLException {
+        ps.setString(1, record.status().name());
+        ps.setTimestamp(2, record.processedAt() != null ? Timestamp.valueOf(record.processedAt()) : null);
+        ps.setString(3, record.failureReason());
+        ps.setLong(4, record.version());
+        ps.setInt(5, record.attempts());
+        ps.setTimestamp(6, record.nextRetryAt() != null ? Timestamp.valueOf(record.nextRetryAt()) : null);
+        ps.setTimestamp(7, record.chargedAt() != null ? Timestamp.valueOf(record.chargedAt()) : null);
+        ps.setString(8, record.orderId());
+        ps.setLong(9, record.version());
+    }
+
+    private static Payment copy(Payment payment) {
+        Payment copy = new Payment();
+        copy.setId(payment.getId());
+        copy.setOrderId(payment.getOrderId());
+        copy.setAmount(payment.getAmount());
+        copy.setMethod(payment.getMethod());
+        copy.setStatus(payment.getStatus());
+        copy.setProcessedAt(payment.getProcessedAt());
+        copy.setFailureReason(payment.getFailureReason());
+        copy.setVersion(payment.getVersion());
+        copy.setAttempts(payment.getAttempts());
+        copy.setNextRetryAt(payment.getNextRetryAt());
+        copy.setChargedAt(payment.getChargedAt());
+        return copy;
+    }
+
+    // record and payment are null for a sequence that is skipped rather than applied.
+    private record Applied(long sequence, JournalRecord record, Payment payment) {
+    }
+}
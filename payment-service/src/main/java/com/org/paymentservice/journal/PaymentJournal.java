@@ -0,0 +1,263 @@
+package com.org.paymentservice.journal;
+
+import com.org.paymentservice.model.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only log of payment records in preallocated, memory-mapped segment files. Each record is
+// framed as [length][crc32c][payload]; a zero length marks the end of written data, and a bad
+// checksum marks a torn write that is discarded on replay.
+//
+// Appends only copy into the mapped segment. A single flusher thread forces everything written
+// since its last flush in one call and then completes all of those appends together, so
+// concurrent writers share one fsync instead of paying for one each (group commit).
+public class PaymentJournal implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PaymentJournal.class);
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Path checkpointFile;
+    // Last sequence written to each closed segment, so fully applied segments can be deleted.
+    private final Map<Integer, Long> closedSegments = new ConcurrentSkipListMap<>();
+
+    private final Object lock = new Object();
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private int position;
+    private int flushedPosition;
+    private long nextSequence;
+    private List<Waiter> waiting = new ArrayList<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public PaymentJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.checkpointFile = directory.resolve("checkpoint");
+    }
+
+    // Returns the records written after the last checkpoint, in order, and starts a fresh segment
+    // for new appends. The caller must apply the returned records and then checkpoint them.
+    public List<JournalRecord> open() throws IOException {
+        Files.createDirectories(directory);
+        long checkpoint = readCheckpoint();
+        List<JournalRecord> unapplied = new ArrayList<>();
+        long lastSequence = checkpoint;
+        int lastSegment = -1;
+        for (Path file : segmentFiles()) {
+            int index = segmentIndex(file);
+            long segmentLast = checkpoint;
+            for (JournalRecord record : readSegment(file)) {
+                segmentLast = Math.max(segmentLast, record.sequence());
+                if (record.sequence() > checkpoint) {
+                    unapplied.add(record);
+                }
+            }
+            closedSegments.put(index, segmentLast);
+            lastSequence = Math.max(lastSequence, segmentLast);
+            lastSegment = index;
+        }
+
+        synchronized (lock) {
+            nextSequence = lastSequence + 1;
+            openSegment(lastSegment + 1);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "payment-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Payment journal opened in {} with {} record(s) to replay", directory, unapplied.size());
+        return unapplied;
+    }
+
+    // Completes once the record is durable on disk.
+    public CompletableFuture<JournalRecord> append(Payment payment) {
+        CompletableFuture<JournalRecord> durable = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("Payment journal is not open");
+            }
+            JournalRecord record = JournalRecord.of(nextSequence, payment);
+            byte[] payload = record.encode();
+            int frame = HEADER_BYTES + payload.length;
+            if (frame + 4 > segmentSize) {
+                throw new IllegalArgumentException("Journal record of " + frame + " bytes exceeds the segment size");
+            }
+            if (position + frame + 4 > segmentSize) {
+                rollSegment();
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            // The length goes in last so a reader never sees a frame whose body is still being copied.
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.put(position + HEADER_BYTES, payload);
+            segment.putInt(position, payload.length);
+            position += frame;
+            nextSequence++;
+            waiting.add(new Waiter(record, durable));
+            lock.notifyAll();
+        }
+        return durable;
+    }
+
+    // The highest sequence handed out so far; right after open(), the last one already in the journal.
+    public long lastSequence() {
+        synchronized (lock) {
+            return nextSequence - 1;
+        }
+    }
+
+    // Records up to and including the sequence are in the table; their segments can go.
+    public void checkpoint(long sequence) throws IOException {
+        Path temp = directory.resolve("checkpoint.tmp");
+        Files.writeString(temp, Long.toString(sequence));
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        closedSegments.entrySet().removeIf(entry -> {
+            if (entry.getValue() > sequence) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Could not delete applied journal segment {}", entry.getKey(), e);
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<Waiter> batch;
+            MappedByteBuffer toForce;
+            int from;
+            int to;
+            synchronized (lock) {
+                while (waiting.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (waiting.isEmpty()) {
+                    return;
+                }
+                batch = waiting;
+                waiting = new ArrayList<>();
+                toForce = segment;
+                from = flushedPosition;
+                to = position;
+                flushedPosition = to;
+            }
+            try {
+                toForce.force(from, to - from);
+                batch.forEach(waiter -> waiter.durable.complete(waiter.record));
+            } catch (RuntimeException e) {
+                batch.forEach(waiter -> waiter.durable.completeExceptionally(
+                        new JournalWriteException(waiter.record.sequence(), e)));
+            }
+        }
+    }
+
+    // Called with the lock held. Appends already in the old segment are forced here, since the
+    // flusher only ever forces the current segment.
+    private void rollSegment() {
+        segment.force();
+        List<Waiter> flushed = waiting;
+        waiting = new ArrayList<>();
+        flushed.forEach(waiter -> waiter.durable.complete(waiter.record));
+        closedSegments.put(segmentIndex, nextSequence - 1);
+        openSegment(segmentIndex + 1);
+    }
+
+    private void openSegment(int index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segmentIndex = index;
+        position = 0;
+        flushedPosition = 0;
+    }
+
+    private List<JournalRecord> readSegment(Path file) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Discarding torn journal record in {} at offset {}", file, buffer.position() - HEADER_BYTES);
+                    break;
+                }
+                records.add(JournalRecord.decode(payload));
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return records;
+    }
+
+    private long readCheckpoint() throws IOException {
+        return Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile).trim()) : 0;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("segment-\\d+\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%010d.log", index));
+    }
+
+    private static int segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (flusher != null) {
+            flusher.join();
+        }
+    }
+
+    private record Waiter(JournalRecord record, CompletableFuture<JournalRecord> durable) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.org.paymentservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SqlMetricsListener implements QueryExecutionListener {
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("sql.slow");
+
+    private final Map<QueryType, Timer> timers = new EnumMap<>(QueryType.class);
+    private final long slowQueryThresholdMillis;
+
+    public SqlMetricsListener(MeterRegistry meterRegistry,
+                              @Value("${sql.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+        for (QueryType type : QueryType.values()) {
+            timers.put(type, Timer.builder("sql.statement.duration")
+                    .tag("type", type.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int statements = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : queryInfoList.size();
+        SqlStatementCounter.add(statements);
+
+        String firstQuery = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        timers.get(QueryUtils.getQueryType(firstQuery)).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            slowQueryLog.warn("Slow SQL ({} ms, {} statement(s)) on {}: {}",
+                    execInfo.getElapsedTime(), statements, execInfo.getDataSourceName(), firstQuery);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.org.paymentservice.model;
+
+public enum BatchItemOutcome {
+    CREATED,
+    EXISTING,
+    DUPLICATE,
+    INVALID
+}
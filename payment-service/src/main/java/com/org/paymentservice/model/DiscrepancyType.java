@@ -0,0 +1,14 @@
+package com.org.paymentservice.model;
+
+public enum DiscrepancyType {
+    // Order without any payment.
+    MISSING_PAYMENT,
+    // Payment without an order.
+    ORPHAN_PAYMENT,
+    // More than one payment for one order.
+    DUPLICATE_PAYMENT,
+    // The order's only payment is not PAID.
+    NOT_PAID,
+    // The order's only payment is PAID for a different amount.
+    AMOUNT_MISMATCH
+}
@@ -3,11 +3,11 @@ package com.org.paymentservice.model;
 import lombok.Data;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+// The unique order_id is what makes payment processing idempotent per order.
+@Table(name = "payments", uniqueConstraints = @UniqueConstraint(name = "uk_payments_order_id", columnNames = "order_id"))
 @Data
 public class Payment {
     @Id
@@ -15,11 +15,24 @@ public class Payment {
     private Long id;
 
     private String orderId;
-    private BigDecimal amount;
+    private Money amount;
     private String method;
 
     @Enumerated(EnumType.STRING)
     private PaymentStatus status;
 
     private LocalDateTime processedAt;
+    private String failureReason;
+
+    // Times the gateway has been charged, and when the next charge is due while a retry is scheduled.
+    private int attempts;
+    private LocalDateTime nextRetryAt;
+
+    // When the current attempt was sent to the gateway. A payment still PENDING long after this has
+    // lost the gateway's answer and is recovered by StalePaymentSweeper.
+    private LocalDateTime chargedAt;
+
+    // Bumped on every persisted change; doubles as the SSE event id for status updates.
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.org.paymentservice.model;
 
 public enum PaymentStatus {
+    PENDING,
     PAID,
     FAILED
 }
\ No newline at end of file
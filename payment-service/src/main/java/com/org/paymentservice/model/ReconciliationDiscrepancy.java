@@ -0,0 +1,28 @@
+package com.org.paymentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "reconciliation_discrepancies",
+        indexes = @Index(name = "idx_reconciliation_discrepancies_run", columnList = "run_id, order_id"))
+@Data
+public class ReconciliationDiscrepancy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long runId;
+    private String orderId;
+
+    @Enumerated(EnumType.STRING)
+    private DiscrepancyType type;
+
+    private Money orderAmount;
+    private Money paymentAmount;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private int paymentCount;
+}
@@ -0,0 +1,18 @@
+package com.org.paymentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "reconciliation_partitions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reconciliation_partitions_run_from", columnNames = {"run_id", "from_order_id"}))
+@Data
+public class ReconciliationPartition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long runId;
+    private long fromOrderId;
+    private long toOrderId;
+}
@@ -0,0 +1,31 @@
+package com.org.paymentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+public class ReconciliationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Order ids in [fromOrderId, toOrderId) are reconciled.
+    private long fromOrderId;
+    private long toOrderId;
+    private int partitionSize;
+
+    @Enumerated(EnumType.STRING)
+    private ReconciliationStatus status;
+
+    private long processedOrderIds;
+    private long discrepancyCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
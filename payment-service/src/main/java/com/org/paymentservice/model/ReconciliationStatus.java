@@ -0,0 +1,7 @@
+package com.org.paymentservice.model;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
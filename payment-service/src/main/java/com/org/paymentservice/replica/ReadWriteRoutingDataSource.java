@@ -0,0 +1,22 @@
+package com.org.paymentservice.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions that opted in through ReplicaContext to the replica and everything
+// else to the primary. The read-only flag is only known once the transaction has begun, so this
+// must sit behind a LazyConnectionDataSourceProxy that defers the lookup to the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaContext.isBound() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+}
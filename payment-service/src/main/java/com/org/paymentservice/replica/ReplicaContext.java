@@ -0,0 +1,24 @@
+package com.org.paymentservice.replica;
+
+// Marks the current thread as willing to read from the replica. The routing DataSource only
+// honours it for read-only transactions, so a write made under the mark still goes to the primary.
+public final class ReplicaContext {
+    private static final ThreadLocal<Boolean> CURRENT = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static boolean isBound() {
+        return Boolean.TRUE.equals(CURRENT.get());
+    }
+
+    static Boolean bind(Boolean replica) {
+        Boolean previous = CURRENT.get();
+        if (replica == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(replica);
+        }
+        return previous;
+    }
+}
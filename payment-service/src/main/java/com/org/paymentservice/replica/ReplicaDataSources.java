@@ -0,0 +1,16 @@
+package com.org.paymentservice.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.Closeable;
+
+// The two pools behind the routing DataSource. Kept out of the DataSource beans so that only the
+// routing proxy is exposed to JPA, Flyway and the SQL metrics wrapper.
+public record ReplicaDataSources(HikariDataSource primary, HikariDataSource replica) implements Closeable {
+
+    @Override
+    public void close() {
+        primary.close();
+        replica.close();
+    }
+}
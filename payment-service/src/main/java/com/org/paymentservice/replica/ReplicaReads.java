@@ -0,0 +1,87 @@
+package com.org.paymentservice.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Decides per read whether the replica may serve it. An order written through this instance within
+// the read-your-writes window is read from the primary, as is anything the replica does not have
+// yet, so a client polling right after submitting never sees its payment go missing or step back.
+@Component
+public class ReplicaReads {
+    private final boolean enabled;
+    private final long windowNanos;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    // Order id to the nano time its read-your-writes window closes.
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReplicaReads(PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${payments.replica.enabled:false}") boolean enabled,
+                        @Value("${payments.replica.read-your-writes-window:5s}") Duration window) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.replicaReads = Counter.builder("payments.replica.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("payments.replica.reads").tag("target", "primary").register(meterRegistry);
+        meterRegistry.gaugeMapSize("payments.replica.recent.writes", List.of(), recentWrites);
+    }
+
+    public void wrote(String orderId) {
+        if (enabled) {
+            recentWrites.put(orderId, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public <T> Optional<T> read(String orderId, Supplier<Optional<T>> query) {
+        if (!enabled || isRecent(orderId)) {
+            primaryReads.increment();
+            return query.get();
+        }
+        Boolean previous = ReplicaContext.bind(Boolean.TRUE);
+        Optional<T> result;
+        try {
+            result = readOnlyTransaction.execute(status -> query.get());
+        } finally {
+            ReplicaContext.bind(previous);
+        }
+        if (result != null && result.isPresent()) {
+            replicaReads.increment();
+            return result;
+        }
+        primaryReads.increment();
+        return query.get();
+    }
+
+    private boolean isRecent(String orderId) {
+        Long until = recentWrites.get(orderId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        recentWrites.remove(orderId, until);
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.replica.read-your-writes-window:5s}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        recentWrites.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+    }
+}
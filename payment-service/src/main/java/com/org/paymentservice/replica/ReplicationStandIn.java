@@ -0,0 +1,55 @@
+package com.org.paymentservice.replica;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+// Stands in for database replication when both databases are embedded. The replica gets the same
+// migrations, and on every tick the payments table is copied over whole in one replica transaction,
+// so replica readers see the previous copy until the new one commits. The interval is the
+// replication lag. A full copy is only reasonable for local data volumes; a real replica would be
+// fed by the database's own log shipping and this bean would not exist.
+public class ReplicationStandIn {
+    private static final Logger log = LoggerFactory.getLogger(ReplicationStandIn.class);
+    private static final String TABLE = "payments";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransaction;
+
+    public ReplicationStandIn(ReplicaDataSources dataSources) {
+        Flyway.configure().dataSource(dataSources.replica()).load().migrate();
+        this.primary = new JdbcTemplate(dataSources.primary());
+        this.replica = new JdbcTemplate(dataSources.replica());
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSources.replica()));
+    }
+
+    @Scheduled(fixedDelayString = "${payments.replica.replication-interval:500ms}")
+    public void replicate() {
+        try {
+            List<Object[]> rows = primary.query("SELECT * FROM " + TABLE, (rs, rowNum) -> {
+                Object[] row = new Object[rs.getMetaData().getColumnCount()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                return row;
+            });
+            replicaTransaction.executeWithoutResult(status -> {
+                replica.update("DELETE FROM " + TABLE);
+                if (!rows.isEmpty()) {
+                    String placeholders = String.join(", ", Collections.nCopies(rows.get(0).length, "?"));
+                    replica.batchUpdate("INSERT INTO " + TABLE + " VALUES (" + placeholders + ")", rows);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Replication to the payments replica failed", e);
+        }
+    }
+}
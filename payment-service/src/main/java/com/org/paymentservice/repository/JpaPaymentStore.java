@@ -0,0 +1,91 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "payments.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaPaymentStore implements PaymentStore {
+    private final PaymentRepository repository;
+
+    public JpaPaymentStore(PaymentRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Optional<Payment> findByOrderId(String orderId) {
+        return repository.findByOrderId(orderId);
+    }
+
+    // The unique index on order_id decides between concurrent claims: the losing insert fails
+    // and the winner's row is returned instead.
+    @Override
+    public Claim claim(Payment payment) {
+        try {
+            return new Claim(repository.save(payment), true);
+        } catch (DataIntegrityViolationException e) {
+            return repository.findByOrderId(payment.getOrderId())
+                    .map(existing -> new Claim(existing, false))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // Orders that already have a payment are found with one lookup and the rest are inserted in
+    // JDBC batches, then read back for their ids. If a concurrent request claims one of the orders
+    // in between, the batch insert rolls back and the payments are claimed one at a time instead.
+    @Override
+    public List<Claim> claimAll(List<Payment> payments) {
+        Map<String, Payment> existing = byOrderId(repository.findByOrderIdInChunks(orderIds(payments)));
+        List<Payment> fresh = payments.stream().filter(payment -> !existing.containsKey(payment.getOrderId())).toList();
+        try {
+            repository.insertAll(fresh);
+        } catch (DataIntegrityViolationException e) {
+            return payments.stream().map(this::claim).toList();
+        }
+        Map<String, Payment> inserted = byOrderId(repository.findByOrderIdInChunks(orderIds(fresh)));
+        return payments.stream()
+                .map(payment -> existing.containsKey(payment.getOrderId())
+                        ? new Claim(existing.get(payment.getOrderId()), false)
+                        : new Claim(inserted.get(payment.getOrderId()), true))
+                .toList();
+    }
+
+    private static List<String> orderIds(List<Payment> payments) {
+        return payments.stream().map(Payment::getOrderId).toList();
+    }
+
+    private static Map<String, Payment> byOrderId(List<Payment> payments) {
+        return payments.stream().collect(Collectors.toMap(Payment::getOrderId, Function.identity()));
+    }
+
+    @Override
+    public Payment update(Payment payment) {
+        return repository.save(payment);
+    }
+
+    @Override
+    public List<Payment> findScheduledRetries() {
+        return repository.findByStatusAndNextRetryAtIsNotNull(PaymentStatus.FAILED);
+    }
+
+    @Override
+    public List<Payment> findStalePending(LocalDateTime chargedBefore, int limit) {
+        return repository.findByStatusAndChargedAtBeforeOrderByIdAsc(PaymentStatus.PENDING, chargedBefore, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Payment> findAwaitingCharge(int limit) {
+        return repository.findByStatusAndChargedAtIsNullOrderByIdAsc(PaymentStatus.PENDING, PageRequest.of(0, limit));
+    }
+}
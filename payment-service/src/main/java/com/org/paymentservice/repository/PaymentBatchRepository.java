@@ -0,0 +1,12 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.Payment;
+
+import java.util.List;
+
+public interface PaymentBatchRepository {
+
+    // Inserts all payments in one transaction with JDBC batching, which Hibernate cannot do for
+    // identity ids. Fails as a whole if any order already has a payment.
+    void insertAll(List<Payment> payments);
+}
@@ -0,0 +1,45 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class PaymentBatchRepositoryImpl implements PaymentBatchRepository {
+    private static final String INSERT = "INSERT INTO payments (order_id, amount, method, status, processed_at, failure_reason, version, "
+            + "attempts, next_retry_at, charged_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    PaymentBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                               @Value("${payments.batch.insert-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Payment> payments) {
+        jdbcTemplate.batchUpdate(INSERT, payments, batchSize, (ps, payment) -> {
+            ps.setString(1, payment.getOrderId());
+            ps.setBigDecimal(2, payment.getAmount().toBigDecimal());
+            ps.setString(3, payment.getMethod());
+            ps.setString(4, payment.getStatus().name());
+            ps.setTimestamp(5, timestamp(payment.getProcessedAt()));
+            ps.setString(6, payment.getFailureReason());
+            ps.setLong(7, payment.getVersion() != null ? payment.getVersion() : 0);
+            ps.setInt(8, payment.getAttempts());
+            ps.setTimestamp(9, timestamp(payment.getNextRetryAt()));
+            ps.setTimestamp(10, timestamp(payment.getChargedAt()));
+        });
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
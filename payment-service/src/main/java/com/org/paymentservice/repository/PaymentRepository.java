@@ -1,10 +1,38 @@
 package com.org.paymentservice.repository;
 
 import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentBatchRepository {
+    int LOOKUP_CHUNK_SIZE = 1000;
+
     Optional<Payment> findByOrderId(String orderId);
+
+    List<Payment> findByOrderIdIn(Collection<String> orderIds);
+
+    List<Payment> findByStatusAndNextRetryAtIsNotNull(PaymentStatus status);
+
+    List<Payment> findByStatusAndChargedAtIsNullOrderByIdAsc(PaymentStatus status, Pageable pageable);
+
+    List<Payment> findByStatusAndChargedAtBeforeOrderByIdAsc(PaymentStatus status, LocalDateTime chargedBefore, Pageable pageable);
+
+    List<Payment> findByStatusInAndNextRetryAtIsNullAndProcessedAtBeforeOrderByIdAsc(
+            Collection<PaymentStatus> statuses, LocalDateTime cutoff, Pageable pageable);
+
+    // Keeps the IN list of a lookup for a large batch to a bounded size.
+    default List<Payment> findByOrderIdInChunks(List<String> orderIds) {
+        List<Payment> payments = new ArrayList<>(orderIds.size());
+        for (int i = 0; i < orderIds.size(); i += LOOKUP_CHUNK_SIZE) {
+            payments.addAll(findByOrderIdIn(orderIds.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE, orderIds.size()))));
+        }
+        return payments;
+    }
 }
\ No newline at end of file
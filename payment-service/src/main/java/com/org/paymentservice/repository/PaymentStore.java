@@ -0,0 +1,34 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.Payment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Where PaymentService keeps payments. The default writes straight to the payments table; the
+// journal mode acknowledges writes from a group-committed log and applies them to the table later.
+public interface PaymentStore {
+
+    Optional<Payment> findByOrderId(String orderId);
+
+    // Stores a new payment unless its order already has one, in which case that one is returned.
+    Claim claim(Payment payment);
+
+    // Claims each payment as claim() would, in the order given, in far fewer round trips.
+    List<Claim> claimAll(List<Payment> payments);
+
+    Payment update(Payment payment);
+
+    // Failed payments with a retry still to come, so retries survive a restart.
+    List<Payment> findScheduledRetries();
+
+    // PENDING payments whose charge was sent before the cutoff and never settled, oldest first.
+    List<Payment> findStalePending(LocalDateTime chargedBefore, int limit);
+
+    // PENDING payments whose charge has not been sent yet, as claimed by a batch, oldest first.
+    List<Payment> findAwaitingCharge(int limit);
+
+    record Claim(Payment payment, boolean created) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.ReconciliationDiscrepancy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+
+    List<ReconciliationDiscrepancy> findByRunIdOrderByIdAsc(Long runId, Pageable pageable);
+}
@@ -0,0 +1,11 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.ReconciliationPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ReconciliationPartitionRepository extends JpaRepository<ReconciliationPartition, Long> {
+
+    List<ReconciliationPartition> findByRunId(Long runId);
+}
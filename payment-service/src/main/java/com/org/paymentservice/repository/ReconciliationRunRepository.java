@@ -0,0 +1,20 @@
+package com.org.paymentservice.repository;
+
+import com.org.paymentservice.model.ReconciliationRun;
+import com.org.paymentservice.model.ReconciliationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    List<ReconciliationRun> findByStatus(ReconciliationStatus status);
+
+    @Modifying
+    @Query("update ReconciliationRun r set r.processedOrderIds = r.processedOrderIds + :orderIds, " +
+            "r.discrepancyCount = r.discrepancyCount + :discrepancies where r.id = :id")
+    int addProgress(@Param("id") Long id, @Param("orderIds") long orderIds, @Param("discrepancies") long discrepancies);
+}
@@ -0,0 +1,125 @@
+package com.org.paymentservice.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Holds due retries of failed payments in a delay queue and runs them on a fixed pool of workers.
+// A single dispatcher thread only hands a retry to a worker once one is free, so a burst of due
+// retries waits in the queue rather than piling onto the gateway. Backoff doubles per attempt up
+// to a cap and is jittered over its upper half, so payments that failed together do not all come
+// back together.
+@Component
+public class PaymentRetryScheduler {
+    private static final Logger log = LoggerFactory.getLogger(PaymentRetryScheduler.class);
+
+    private final DelayQueue<DueRetry> queue = new DelayQueue<>();
+    private final Semaphore idleWorkers;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentRetryScheduler(MeterRegistry meterRegistry,
+                                 @Value("${payments.retry.max-attempts:4}") int maxAttempts,
+                                 @Value("${payments.retry.initial-backoff:1s}") Duration initialBackoff,
+                                 @Value("${payments.retry.max-backoff:5m}") Duration maxBackoff,
+                                 @Value("${payments.retry.workers:8}") int workers) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+        this.idleWorkers = new Semaphore(workers);
+        this.workers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("payment-retry-"));
+        this.dispatcher = new Thread(this::dispatch, "payment-retry-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+        meterRegistry.gaugeCollectionSize("payments.retry.queue.depth", List.of(), queue);
+    }
+
+    // Whether a payment that has been charged this many times may be charged again.
+    public boolean canRetry(int attempts) {
+        return attempts < maxAttempts;
+    }
+
+    public LocalDateTime nextAttemptAt(int attempts) {
+        long capMillis = maxBackoff.toMillis();
+        long backoffMillis = initialBackoff.toMillis() << Math.min(Math.max(attempts - 1, 0), 30);
+        backoffMillis = Math.min(Math.max(backoffMillis, 1), capMillis);
+        long jittered = backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        return LocalDateTime.now().plus(jittered, ChronoUnit.MILLIS);
+    }
+
+    public void schedule(String orderId, LocalDateTime dueAt, Runnable retry) {
+        queue.add(new DueRetry(orderId, dueAt, retry));
+    }
+
+    // Outcome of a retry: paid, rescheduled, exhausted or deferred when the gateway had no capacity.
+    public void recordOutcome(String outcome) {
+        Counter.builder("payments.retry.outcomes").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                idleWorkers.acquire();
+                DueRetry due;
+                try {
+                    due = queue.take();
+                } catch (InterruptedException e) {
+                    idleWorkers.release();
+                    throw e;
+                }
+                workers.execute(() -> {
+                    try {
+                        due.retry().run();
+                    } catch (Exception e) {
+                        log.error("Retry of payment for order {} failed", due.orderId(), e);
+                    } finally {
+                        idleWorkers.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        workers.shutdown();
+    }
+
+    private record DueRetry(String orderId, LocalDateTime dueAt, Runnable retry) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), dueAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return dueAt.compareTo(((DueRetry) other).dueAt);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.archive.PaymentArchive;
+import com.org.paymentservice.dto.BatchPaymentItemResponse;
+import com.org.paymentservice.dto.BatchPaymentResponse;
+import com.org.paymentservice.dto.PaymentRequest;
+import com.org.paymentservice.exception.InvalidRequestException;
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
+import com.org.paymentservice.gateway.PaymentGatewayClient;
+import com.org.paymentservice.model.BatchItemOutcome;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.replica.ReplicaReads;
+import com.org.paymentservice.repository.PaymentStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Takes many payments in one request. Items are validated and de-duplicated up front, every valid
+// item is claimed in one round of batched inserts, and the response lists an outcome per item.
+// Unlike the single path, charges are not limited by the gateway bulkhead at submission time.
+// Claimed payments are stored PENDING with no charge sent, and a charger thread feeds them to the
+// gateway as slots free up, reading them back from the store a page at a time. Nothing waits in
+// memory, so the backlog is bounded by the page size and survives a restart. Several instances may
+// poll the same rows: the version check on marking a payment sent lets only one of them charge it.
+@Service
+public class PaymentBatchService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatchService.class);
+
+    private final PaymentStore store;
+    private final PaymentService paymentService;
+    private final PaymentGatewayClient gatewayClient;
+    private final ReplicaReads replicaReads;
+    private final PaymentArchive archive;
+    private final int maxSize;
+    private final Duration reserveTimeout;
+    private final int pollSize;
+    private final Duration pollInterval;
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private Thread charger;
+    private volatile boolean running;
+
+    public PaymentBatchService(PaymentStore store,
+                               PaymentService paymentService,
+                               PaymentGatewayClient gatewayClient,
+                               ReplicaReads replicaReads,
+                               PaymentArchive archive,
+                               @Value("${payments.batch.max-size:10000}") int maxSize,
+                               @Value("${payments.batch.reserve-timeout:30s}") Duration reserveTimeout,
+                               @Value("${payments.batch.poll-size:500}") int pollSize,
+                               @Value("${payments.batch.poll-interval:5s}") Duration pollInterval) {
+        this.store = store;
+        this.paymentService = paymentService;
+        this.gatewayClient = gatewayClient;
+        this.replicaReads = replicaReads;
+        this.archive = archive;
+        this.maxSize = maxSize;
+        this.reserveTimeout = reserveTimeout;
+        this.pollSize = pollSize;
+        this.pollInterval = pollInterval;
+    }
+
+    // Started once the application is ready, so payments claimed before a restart are charged too.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        charger = new Thread(this::chargeLoop, "payment-batch-charger");
+        charger.setDaemon(true);
+        charger.start();
+    }
+
+    public BatchPaymentResponse processBatch(List<PaymentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("A payment batch must contain at least one payment");
+        }
+        if (requests.size() > maxSize) {
+            throw new InvalidRequestException("A payment batch may contain at most " + maxSize + " payments");
+        }
+
+        BatchPaymentItemResponse[] results = new BatchPaymentItemResponse[requests.size()];
+        Map<String, Integer> firstIndex = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            PaymentRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = result(i, request, BatchItemOutcome.INVALID, error);
+                continue;
+            }
+            Integer first = firstIndex.putIfAbsent(request.getOrderId(), i);
+            if (first != null) {
+                results[i] = result(i, request, BatchItemOutcome.DUPLICATE, "Duplicate of item " + first);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // Orders whose payment has been archived are answered from the archive and not claimed again.
+        Map<String, Payment> archived = archive.findAll(accepted.stream().map(i -> requests.get(i).getOrderId()).toList());
+        accepted.removeIf(i -> {
+            Payment payment = archived.get(requests.get(i).getOrderId());
+            if (payment == null) {
+                return false;
+            }
+            results[i] = result(i, requests.get(i), BatchItemOutcome.EXISTING, null);
+            results[i].setPayment(PaymentService.mapToResponse(payment));
+            return true;
+        });
+
+        List<PaymentStore.Claim> claims = store.claimAll(accepted.stream()
+                .map(i -> PaymentService.pendingPayment(requests.get(i)))
+                .toList());
+        boolean created = false;
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            PaymentStore.Claim claim = claims.get(j);
+            BatchPaymentItemResponse result = result(i, requests.get(i),
+                    claim.created() ? BatchItemOutcome.CREATED : BatchItemOutcome.EXISTING, null);
+            result.setPayment(PaymentService.mapToResponse(claim.payment()));
+            results[i] = result;
+            if (claim.created()) {
+                replicaReads.wrote(claim.payment().getOrderId());
+                created = true;
+            }
+        }
+        if (created) {
+            wakeUp.release();
+        }
+        return mapToResponse(results);
+    }
+
+    private void chargeLoop() {
+        while (running) {
+            try {
+                if (chargeAwaiting() < pollSize) {
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to charge batched payments", e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Charges one page of payments awaiting their charge and returns how many were sent. Stops
+    // early when the gateway stays at capacity; the rest are picked up by a later poll.
+    int chargeAwaiting() {
+        int sent = 0;
+        for (Payment payment : store.findAwaitingCharge(pollSize)) {
+            PaymentGatewayClient.Reservation reservation;
+            try {
+                reservation = gatewayClient.reserve(reserveTimeout);
+            } catch (PaymentGatewayBusyException e) {
+                return sent;
+            }
+            payment.setChargedAt(LocalDateTime.now());
+            Payment marked;
+            try {
+                marked = store.update(payment);
+            } catch (OptimisticLockingFailureException e) {
+                reservation.close();
+                log.debug("Batched payment for order {} was charged by another instance", payment.getOrderId());
+                continue;
+            } catch (RuntimeException e) {
+                reservation.close();
+                throw e;
+            }
+            paymentService.charge(marked, reservation);
+            sent++;
+        }
+        return sent;
+    }
+
+    // The checks the single path leaves to the database and the gateway, made up front so one bad
+    // item is reported on its own instead of failing the batch.
+    private static String validate(PaymentRequest request) {
+        if (request == null) {
+            return "Payment is missing";
+        }
+        if (request.getOrderId() == null || request.getOrderId().isBlank()) {
+            return "orderId is required";
+        }
+        if (request.getAmount() == null || !request.getAmount().isPositive()) {
+            return "amount must be positive";
+        }
+        if (request.getMethod() == null || request.getMethod().isBlank()) {
+            return "method is required";
+        }
+        return null;
+    }
+
+    private static BatchPaymentItemResponse result(int index, PaymentRequest request, BatchItemOutcome outcome, String error) {
+        BatchPaymentItemResponse result = new BatchPaymentItemResponse();
+        result.setIndex(index);
+        result.setOrderId(request != null ? request.getOrderId() : null);
+        result.setOutcome(outcome.name());
+        result.setError(error);
+        return result;
+    }
+
+    private static BatchPaymentResponse mapToResponse(BatchPaymentItemResponse[] results) {
+        BatchPaymentResponse res = new BatchPaymentResponse();
+        for (BatchPaymentItemResponse result : results) {
+            switch (BatchItemOutcome.valueOf(result.getOutcome())) {
+                case CREATED -> res.setCreated(res.getCreated() + 1);
+                case EXISTING -> res.setExisting(res.getExisting() + 1);
+                case DUPLICATE -> res.setDuplicates(res.getDuplicates() + 1);
+                case INVALID -> res.setInvalid(res.getInvalid() + 1);
+            }
+        }
+        res.setResults(List.of(results));
+        return res;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (charger != null) {
+            charger.interrupt();
+        }
+    }
+}
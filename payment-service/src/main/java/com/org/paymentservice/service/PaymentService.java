@@ -1,53 +1,283 @@
 package com.org.paymentservice.service;
 
+import com.org.paymentservice.archive.PaymentArchive;
 import com.org.paymentservice.dto.PaymentRequest;
 import com.org.paymentservice.dto.PaymentResponse;
+import com.org.paymentservice.dto.PaymentStatsResponse;
+import com.org.paymentservice.event.PaymentEventHub;
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
 import com.org.paymentservice.exception.PaymentNotFoundException;
+import com.org.paymentservice.gateway.GatewayCharge;
+import com.org.paymentservice.gateway.GatewayResult;
+import com.org.paymentservice.gateway.PaymentGatewayClient;
 import com.org.paymentservice.model.Payment;
 import com.org.paymentservice.model.PaymentStatus;
-import com.org.paymentservice.repository.PaymentRepository;
+import com.org.paymentservice.replica.ReplicaReads;
+import com.org.paymentservice.repository.PaymentStore;
+import com.org.paymentservice.retry.PaymentRetryScheduler;
+import com.org.paymentservice.stats.PaymentStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class PaymentService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
-    private final PaymentRepository repository;
+    private final PaymentStore store;
+    private final PaymentGatewayClient gatewayClient;
+    private final PaymentEventHub eventHub;
+    private final PaymentStats stats;
+    private final PaymentRetryScheduler retryScheduler;
+    private final ReplicaReads replicaReads;
+    private final PaymentArchive archive;
 
-    public PaymentService(PaymentRepository repository) {
-        this.repository = repository;
+    public PaymentService(PaymentStore store, PaymentGatewayClient gatewayClient, PaymentEventHub eventHub,
+                          PaymentStats stats, PaymentRetryScheduler retryScheduler, ReplicaReads replicaReads,
+                          PaymentArchive archive) {
+        this.store = store;
+        this.gatewayClient = gatewayClient;
+        this.eventHub = eventHub;
+        this.stats = stats;
+        this.retryScheduler = retryScheduler;
+        this.replicaReads = replicaReads;
+        this.archive = archive;
     }
 
+    // Exactly one payment is stored per order. A retry or duplicate gets the stored payment back,
+    // either from the lookup below or, when two requests race, from the store's atomic claim.
+    // No lock is taken, so distinct orders never contend. Archived payments count as stored, though
+    // the unique index no longer guards them against two racing duplicates. The archive check on a
+    // new order costs no I/O: each archive file's bloom filter rules the order out in memory.
+    // The payment is stored as PENDING and the gateway is charged asynchronously, so the request
+    // thread returns immediately and the status moves to PAID or FAILED when the gateway answers.
     public PaymentResponse processPayment(PaymentRequest request) {
+        Optional<Payment> existing = store.findByOrderId(request.getOrderId())
+                .or(() -> archive.find(request.getOrderId()));
+        if (existing.isPresent()) {
+            return mapToResponse(existing.get());
+        }
+
+        // Until send() hands the reservation to the gateway call, any failure must give the slot back,
+        // or the bulkhead loses it for good.
+        PaymentGatewayClient.Reservation reservation = gatewayClient.reserve();
+        try {
+            Payment pending = pendingPayment(request);
+            pending.setChargedAt(LocalDateTime.now());
+            PaymentStore.Claim claim = store.claim(pending);
+            if (!claim.created()) {
+                reservation.close();
+                return mapToResponse(claim.payment());
+            }
+            return charge(claim.payment(), reservation);
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+    }
+
+    PaymentResponse charge(Payment payment, PaymentGatewayClient.Reservation reservation) {
+        PaymentResponse response;
+        try {
+            replicaReads.wrote(payment.getOrderId());
+            stats.record(payment.getMethod(), payment.getStatus(), payment.getAmount());
+            response = mapToResponse(payment);
+            eventHub.publish(response, versionOf(payment));
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+        send(payment, reservation);
+        return response;
+    }
+
+    private void send(Payment payment, PaymentGatewayClient.Reservation reservation) {
+        reservation.charge(chargeOf(payment))
+                .thenAccept(result -> settle(payment, result))
+                .exceptionally(e -> {
+                    log.error("Failed to record gateway result for order {}; it stays PENDING until recovered",
+                            payment.getOrderId(), e);
+                    return null;
+                });
+    }
+
+    private static GatewayCharge chargeOf(Payment payment) {
+        return chargeOf(payment, payment.getAttempts());
+    }
+
+    private static GatewayCharge chargeOf(Payment payment, int attempt) {
+        return new GatewayCharge(payment.getOrderId(), payment.getAmount(), payment.getMethod(),
+                GatewayCharge.idempotencyKey(payment.getOrderId(), attempt));
+    }
+
+    // A payment still PENDING long after its charge was sent has lost the gateway's answer, to a
+    // crash, a failed write or a timeout. The gateway is asked what became of the charge under its
+    // idempotency key: a known answer is settled as if it had just arrived, and a charge it never
+    // received is sent again under the same key. Completes with "settled" or "recharged".
+    CompletableFuture<String> recover(Payment payment) {
+        PaymentGatewayClient.Reservation reservation = gatewayClient.reserve();
+        return reservation.inquire(chargeOf(payment)).thenApply(answer -> {
+            if (answer.isPresent()) {
+                reservation.close();
+                settle(payment, answer.get());
+                return "settled";
+            }
+            payment.setChargedAt(LocalDateTime.now());
+            Payment saved;
+            try {
+                saved = store.update(payment);
+            } catch (RuntimeException e) {
+                reservation.close();
+                throw e;
+            }
+            replicaReads.wrote(saved.getOrderId());
+            send(saved, reservation);
+            return "recharged";
+        });
+    }
+
+    static Payment pendingPayment(PaymentRequest request) {
         Payment payment = new Payment();
         payment.setOrderId(request.getOrderId());
         payment.setAmount(request.getAmount());
         payment.setMethod(request.getMethod());
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setAttempts(1);
+        return payment;
+    }
+
+    // A soft decline is given a jittered due time for its next attempt, stored with the payment,
+    // until the attempts run out; a hard decline is not retried. An unknown outcome may have been
+    // charged, so it is not retried either: the payment stays PENDING until StalePaymentSweeper
+    // gets the answer from the gateway.
+    void settle(Payment payment, GatewayResult result) {
+        if (result.outcome() == GatewayResult.Outcome.UNKNOWN) {
+            payment.setStatus(PaymentStatus.PENDING);
+            payment.setFailureReason(result.reason());
+            payment.setNextRetryAt(null);
+            Payment saved = store.update(payment);
+            replicaReads.wrote(saved.getOrderId());
+            eventHub.publish(mapToResponse(saved), versionOf(saved));
+            if (payment.getAttempts() > 1) {
+                retryScheduler.recordOutcome("unknown");
+            }
+            return;
+        }
+        boolean retry = result.outcome() == GatewayResult.Outcome.SOFT_DECLINE
+                && retryScheduler.canRetry(payment.getAttempts());
+        payment.setStatus(result.approved() ? PaymentStatus.PAID : PaymentStatus.FAILED);
+        payment.setFailureReason(result.reason());
         payment.setProcessedAt(LocalDateTime.now());
+        payment.setNextRetryAt(retry ? retryScheduler.nextAttemptAt(payment.getAttempts()) : null);
+        Payment saved = store.update(payment);
+        replicaReads.wrote(saved.getOrderId());
+        stats.record(saved.getMethod(), saved.getStatus(), saved.getAmount());
+        eventHub.publish(mapToResponse(saved), versionOf(saved));
+
+        if (retry) {
+            scheduleRetry(saved);
+        }
+        if (payment.getAttempts() > 1) {
+            retryScheduler.recordOutcome(result.approved() ? "paid"
+                    : retry ? "rescheduled"
+                    : result.outcome() == GatewayResult.Outcome.HARD_DECLINE ? "declined" : "exhausted");
+        }
+    }
+
+    private void scheduleRetry(Payment payment) {
+        retryScheduler.schedule(payment.getOrderId(), payment.getNextRetryAt(), () -> retry(payment.getOrderId()));
+    }
+
+    // Retries persisted before a restart are due at their stored time, or straight away if it passed.
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleStoredRetries() {
+        store.findScheduledRetries().forEach(this::scheduleRetry);
+    }
 
-        boolean success = ThreadLocalRandom.current().nextBoolean();
-        payment.setStatus(success ? PaymentStatus.PAID : PaymentStatus.FAILED);
+    // Charges a failed payment again under the next attempt's idempotency key. The payment is
+    // re-read first, so a retry that is no longer wanted is dropped. Nothing is written before the
+    // charge: if its answer is lost to a crash, the payment is still FAILED with its retry due, and
+    // the retry after the restart sends the same key, which the gateway answers without charging
+    // twice. An answer that cannot be stored is retried the same way. Retries that find the gateway
+    // at capacity are pushed back without using up an attempt.
+    void retry(String orderId) {
+        Optional<Payment> current = store.findByOrderId(orderId)
+                .filter(payment -> payment.getStatus() == PaymentStatus.FAILED && payment.getNextRetryAt() != null);
+        if (current.isEmpty()) {
+            return;
+        }
+        Payment payment = current.get();
 
-        Payment saved = repository.save(payment);
+        PaymentGatewayClient.Reservation reservation;
+        try {
+            reservation = gatewayClient.reserve();
+        } catch (PaymentGatewayBusyException e) {
+            retryScheduler.recordOutcome("deferred");
+            retryScheduler.schedule(orderId, retryScheduler.nextAttemptAt(payment.getAttempts()), () -> retry(orderId));
+            return;
+        }
 
-        return mapToResponse(saved);
+        int attempt = payment.getAttempts() + 1;
+        LocalDateTime sentAt = LocalDateTime.now();
+        reservation.charge(chargeOf(payment, attempt))
+                .thenAccept(result -> {
+                    payment.setStatus(PaymentStatus.PENDING);
+                    payment.setAttempts(attempt);
+                    payment.setNextRetryAt(null);
+                    payment.setChargedAt(sentAt);
+                    settle(payment, result);
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to record retry result for order {}; retrying under the same key", orderId, e);
+                    retryScheduler.schedule(orderId, retryScheduler.nextAttemptAt(attempt), () -> retry(orderId));
+                    return null;
+                });
     }
 
+    // Subscribes before reading the current state, so a transition persisted in between is
+    // delivered either way; the hub drops whichever copy arrives second.
+    public SseEmitter subscribe(String orderId, Long lastEventId) {
+        SseEmitter emitter = eventHub.subscribe(orderId, lastEventId);
+        store.findByOrderId(orderId)
+                .or(() -> archive.find(orderId))
+                .ifPresent(payment -> eventHub.publish(mapToResponse(payment), versionOf(payment)));
+        return emitter;
+    }
+
+    private static long versionOf(Payment payment) {
+        return payment.getVersion() != null ? payment.getVersion() : 0;
+    }
+
+    // Status polling is served from the read replica when one is configured. Payments no longer in
+    // the table are looked up in the archive.
     public PaymentResponse getPaymentByOrderId(String orderId) {
-        Payment payment = repository.findByOrderId(orderId)
+        Payment payment = replicaReads.read(orderId, () -> store.findByOrderId(orderId))
+                .or(() -> archive.find(orderId))
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found for order ID: " + orderId));
         return mapToResponse(payment);
     }
 
-    private PaymentResponse mapToResponse(Payment payment) {
+    public PaymentStatsResponse getStats() {
+        return stats.snapshot();
+    }
+
+    static PaymentResponse mapToResponse(Payment payment) {
         PaymentResponse res = new PaymentResponse();
         res.setOrderId(payment.getOrderId());
         res.setAmount(payment.getAmount());
         res.setMethod(payment.getMethod());
         res.setStatus(payment.getStatus().name());
         res.setProcessedAt(payment.getProcessedAt());
+        res.setFailureReason(payment.getFailureReason());
+        res.setAttempts(payment.getAttempts());
+        res.setNextRetryAt(payment.getNextRetryAt());
         return res;
     }
 }
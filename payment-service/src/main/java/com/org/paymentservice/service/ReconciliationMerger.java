@@ -0,0 +1,77 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.client.OrderServiceClient.OrderTotal;
+import com.org.paymentservice.model.DiscrepancyType;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.model.ReconciliationDiscrepancy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Merge-join of one partition's orders and payments, both sorted by numeric order id.
+final class ReconciliationMerger {
+
+    private ReconciliationMerger() {
+    }
+
+    static List<ReconciliationDiscrepancy> merge(Long runId, List<OrderTotal> orders, List<Payment> payments) {
+        List<OrderTotal> sortedOrders = orders.stream().sorted(Comparator.comparingLong(OrderTotal::id)).toList();
+        List<Payment> sortedPayments = payments.stream().sorted(Comparator.comparingLong(ReconciliationMerger::orderIdOf)).toList();
+
+        List<ReconciliationDiscrepancy> discrepancies = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < sortedOrders.size() || j < sortedPayments.size()) {
+            long orderId = i < sortedOrders.size() ? sortedOrders.get(i).id() : Long.MAX_VALUE;
+            long paymentOrderId = j < sortedPayments.size() ? orderIdOf(sortedPayments.get(j)) : Long.MAX_VALUE;
+
+            if (orderId < paymentOrderId) {
+                discrepancies.add(discrepancy(runId, sortedOrders.get(i), null, 0, DiscrepancyType.MISSING_PAYMENT));
+                i++;
+                continue;
+            }
+
+            int group = 1;
+            while (j + group < sortedPayments.size() && orderIdOf(sortedPayments.get(j + group)) == paymentOrderId) {
+                group++;
+            }
+            Payment payment = sortedPayments.get(j);
+            if (paymentOrderId < orderId) {
+                ReconciliationDiscrepancy orphan = discrepancy(runId, null, payment, group, DiscrepancyType.ORPHAN_PAYMENT);
+                orphan.setOrderId(payment.getOrderId());
+                discrepancies.add(orphan);
+            } else {
+                OrderTotal order = sortedOrders.get(i);
+                if (group > 1) {
+                    discrepancies.add(discrepancy(runId, order, payment, group, DiscrepancyType.DUPLICATE_PAYMENT));
+                } else if (payment.getStatus() != PaymentStatus.PAID) {
+                    discrepancies.add(discrepancy(runId, order, payment, group, DiscrepancyType.NOT_PAID));
+                } else if (!payment.getAmount().equals(order.totalAmount())) {
+                    discrepancies.add(discrepancy(runId, order, payment, group, DiscrepancyType.AMOUNT_MISMATCH));
+                }
+                i++;
+            }
+            j += group;
+        }
+        return discrepancies;
+    }
+
+    private static long orderIdOf(Payment payment) {
+        return Long.parseLong(payment.getOrderId());
+    }
+
+    private static ReconciliationDiscrepancy discrepancy(Long runId, OrderTotal order, Payment payment, int paymentCount,
+                                                         DiscrepancyType type) {
+        ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+        discrepancy.setRunId(runId);
+        discrepancy.setOrderId(order != null ? Long.toString(order.id()) : null);
+        discrepancy.setType(type);
+        discrepancy.setOrderAmount(order != null ? order.totalAmount() : null);
+        discrepancy.setPaymentAmount(payment != null ? payment.getAmount() : null);
+        discrepancy.setPaymentStatus(payment != null ? payment.getStatus() : null);
+        discrepancy.setPaymentCount(paymentCount);
+        return discrepancy;
+    }
+}
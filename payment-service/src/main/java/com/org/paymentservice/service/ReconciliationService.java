@@ -0,0 +1,257 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.archive.PaymentArchive;
+import com.org.paymentservice.client.OrderServiceClient;
+import com.org.paymentservice.dto.DiscrepancyResponse;
+import com.org.paymentservice.dto.ReconciliationRequest;
+import com.org.paymentservice.dto.ReconciliationResponse;
+import com.org.paymentservice.exception.InvalidRequestException;
+import com.org.paymentservice.exception.ReconciliationNotFoundException;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.ReconciliationDiscrepancy;
+import com.org.paymentservice.model.ReconciliationPartition;
+import com.org.paymentservice.model.ReconciliationRun;
+import com.org.paymentservice.model.ReconciliationStatus;
+import com.org.paymentservice.repository.PaymentRepository;
+import com.org.paymentservice.repository.ReconciliationDiscrepancyRepository;
+import com.org.paymentservice.repository.ReconciliationPartitionRepository;
+import com.org.paymentservice.repository.ReconciliationRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Checks that every order in an id range has exactly one PAID payment for the order's total.
+// The range is split recursively on a fork/join pool down to fixed-size partitions. Each partition
+// fetches its orders from order-service and its payments from the table, merge-joins them, and
+// stores its discrepancies together with a completion marker in one transaction. Progress is the
+// sum of finished partitions, and a resumed run only redoes the partitions without a marker.
+@Service
+public class ReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationPartitionRepository partitionRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderServiceClient orderServiceClient;
+    private final PaymentArchive archive;
+    private final TransactionTemplate transaction;
+    private final int partitionSize;
+    private final long maxSpan;
+    private final ForkJoinPool pool;
+    private final Map<Long, Boolean> active = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public ReconciliationService(ReconciliationRunRepository runRepository,
+                                 ReconciliationPartitionRepository partitionRepository,
+                                 ReconciliationDiscrepancyRepository discrepancyRepository,
+                                 PaymentRepository paymentRepository,
+                                 OrderServiceClient orderServiceClient,
+                                 PaymentArchive archive,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${reconciliation.partition-size:1000}") int partitionSize,
+                                 @Value("${reconciliation.parallelism:4}") int parallelism,
+                                 @Value("${reconciliation.max-span:1000000}") long maxSpan) {
+        this.runRepository = runRepository;
+        this.partitionRepository = partitionRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.paymentRepository = paymentRepository;
+        this.orderServiceClient = orderServiceClient;
+        this.archive = archive;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.partitionSize = partitionSize;
+        this.maxSpan = maxSpan;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public ReconciliationResponse start(ReconciliationRequest request) {
+        if (request.getToOrderId() <= request.getFromOrderId()) {
+            throw new InvalidRequestException("toOrderId must be greater than fromOrderId");
+        }
+        // One run occupies the pool until it is done, so a single request may only cover so many orders.
+        if (request.getToOrderId() - request.getFromOrderId() > maxSpan) {
+            throw new InvalidRequestException("A reconciliation run may cover at most " + maxSpan + " order ids");
+        }
+        ReconciliationRun run = new ReconciliationRun();
+        run.setFromOrderId(request.getFromOrderId());
+        run.setToOrderId(request.getToOrderId());
+        run.setPartitionSize(partitionSize);
+        run.setStatus(ReconciliationStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run = runRepository.save(run);
+        launch(run);
+        return mapToResponse(run);
+    }
+
+    public ReconciliationResponse resume(Long id) {
+        ReconciliationRun run = findRun(id);
+        if (run.getStatus() != ReconciliationStatus.COMPLETED) {
+            run.setStatus(ReconciliationStatus.RUNNING);
+            run.setError(null);
+            run.setFinishedAt(null);
+            run = runRepository.save(run);
+            launch(run);
+        }
+        return mapToResponse(run);
+    }
+
+    // Runs interrupted by a shutdown or crash pick up where their last finished partition left off.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        runRepository.findByStatus(ReconciliationStatus.RUNNING).forEach(run -> {
+            log.info("Resuming reconciliation run {}", run.getId());
+            launch(run);
+        });
+    }
+
+    public ReconciliationResponse getRun(Long id) {
+        return mapToResponse(findRun(id));
+    }
+
+    public List<DiscrepancyResponse> getDiscrepancies(Long id, int page, int size) {
+        findRun(id);
+        return discrepancyRepository.findByRunIdOrderByIdAsc(id, PageRequest.of(page, size)).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void launch(ReconciliationRun run) {
+        if (active.putIfAbsent(run.getId(), Boolean.TRUE) != null) {
+            return;
+        }
+        Set<Long> finished = partitionRepository.findByRunId(run.getId()).stream()
+                .map(ReconciliationPartition::getFromOrderId)
+                .collect(Collectors.toSet());
+        pool.execute(() -> {
+            try {
+                new PartitionTask(run, run.getFromOrderId(), run.getToOrderId(), finished).invoke();
+                finish(run.getId(), ReconciliationStatus.COMPLETED, null);
+            } catch (Exception e) {
+                if (shuttingDown) {
+                    // Left RUNNING, so the next start resumes it.
+                    log.info("Reconciliation run {} interrupted by shutdown", run.getId());
+                    return;
+                }
+                log.error("Reconciliation run {} failed", run.getId(), e);
+                finish(run.getId(), ReconciliationStatus.FAILED, e.getMessage());
+            } finally {
+                active.remove(run.getId());
+            }
+        });
+    }
+
+    private void finish(Long id, ReconciliationStatus status, String error) {
+        ReconciliationRun run = findRun(id);
+        run.setStatus(status);
+        run.setError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+    }
+
+    private void reconcilePartition(ReconciliationRun run, long from, long to) {
+        List<OrderServiceClient.OrderTotal> orders = orderServiceClient.fetchOrderTotals(from, to);
+        List<Payment> payments = new ArrayList<>(paymentRepository.findByOrderIdIn(
+                LongStream.range(from, to).mapToObj(Long::toString).toList()));
+        // Archived payments are only found for orders that exist; archived orphans go unreported.
+        Set<String> inTable = payments.stream().map(Payment::getOrderId).collect(Collectors.toSet());
+        payments.addAll(archive.findAll(orders.stream()
+                .map(order -> Long.toString(order.id()))
+                .filter(orderId -> !inTable.contains(orderId))
+                .toList()).values());
+        List<ReconciliationDiscrepancy> discrepancies = ReconciliationMerger.merge(run.getId(), orders, payments);
+
+        transaction.executeWithoutResult(status -> {
+            ReconciliationPartition partition = new ReconciliationPartition();
+            partition.setRunId(run.getId());
+            partition.setFromOrderId(from);
+            partition.setToOrderId(to);
+            partitionRepository.save(partition);
+            discrepancyRepository.saveAll(discrepancies);
+            runRepository.addProgress(run.getId(), to - from, discrepancies.size());
+        });
+    }
+
+    private ReconciliationRun findRun(Long id) {
+        return runRepository.findById(id)
+                .orElseThrow(() -> new ReconciliationNotFoundException("Reconciliation run not found with id: " + id));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        pool.shutdownNow();
+    }
+
+    // Splits are made on partition boundaries counted from the start of the run, so a resumed run
+    // produces the same partitions and can match them against the stored completion markers.
+    private class PartitionTask extends RecursiveAction {
+        private final ReconciliationRun run;
+        private final long from;
+        private final long to;
+        private final Set<Long> finished;
+
+        PartitionTask(ReconciliationRun run, long from, long to, Set<Long> finished) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.finished = finished;
+        }
+
+        @Override
+        protected void compute() {
+            long partitions = (to - from + run.getPartitionSize() - 1) / run.getPartitionSize();
+            if (partitions <= 1) {
+                if (!finished.contains(from)) {
+                    reconcilePartition(run, from, to);
+                }
+                return;
+            }
+            long mid = from + (partitions / 2) * run.getPartitionSize();
+            invokeAll(new PartitionTask(run, from, mid, finished), new PartitionTask(run, mid, to, finished));
+        }
+    }
+
+    private ReconciliationResponse mapToResponse(ReconciliationRun run) {
+        ReconciliationResponse res = new ReconciliationResponse();
+        res.setId(run.getId());
+        res.setStatus(run.getStatus().name());
+        res.setFromOrderId(run.getFromOrderId());
+        res.setToOrderId(run.getToOrderId());
+        res.setProcessedOrderIds(run.getProcessedOrderIds());
+        res.setTotalOrderIds(run.getToOrderId() - run.getFromOrderId());
+        res.setDiscrepancyCount(run.getDiscrepancyCount());
+        res.setStartedAt(run.getStartedAt());
+        res.setFinishedAt(run.getFinishedAt());
+        res.setError(run.getError());
+        return res;
+    }
+
+    private DiscrepancyResponse mapToResponse(ReconciliationDiscrepancy discrepancy) {
+        DiscrepancyResponse res = new DiscrepancyResponse();
+        res.setOrderId(discrepancy.getOrderId());
+        res.setType(discrepancy.getType().name());
+        res.setOrderAmount(discrepancy.getOrderAmount());
+        res.setPaymentAmount(discrepancy.getPaymentAmount());
+        res.setPaymentStatus(discrepancy.getPaymentStatus() != null ? discrepancy.getPaymentStatus().name() : null);
+        res.setPaymentCount(discrepancy.getPaymentCount());
+        return res;
+    }
+}
@@ -0,0 +1,67 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.repository.PaymentStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Finds payments left PENDING because their gateway answer was never recorded and hands them to
+// PaymentService.recover. The cutoff is well past the gateway timeout, so a charge still in flight
+// is never picked up. Recoveries are asynchronous and take bulkhead slots like any charge; a sweep
+// stops early when the gateway is at capacity and the rest wait for the next one.
+@Component
+public class StalePaymentSweeper {
+    private static final Logger log = LoggerFactory.getLogger(StalePaymentSweeper.class);
+
+    private final PaymentStore store;
+    private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
+    private final Duration staleAfter;
+    private final int batchSize;
+
+    public StalePaymentSweeper(PaymentStore store,
+                               PaymentService paymentService,
+                               MeterRegistry meterRegistry,
+                               @Value("${payments.recovery.stale-after:2m}") Duration staleAfter,
+                               @Value("${payments.recovery.batch-size:100}") int batchSize) {
+        this.store = store;
+        this.paymentService = paymentService;
+        this.meterRegistry = meterRegistry;
+        this.staleAfter = staleAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.recovery.interval:1m}", initialDelayString = "${payments.recovery.interval:1m}")
+    public void sweep() {
+        List<Payment> stale = store.findStalePending(LocalDateTime.now().minus(staleAfter), batchSize);
+        for (Payment payment : stale) {
+            try {
+                paymentService.recover(payment).whenComplete((outcome, error) -> {
+                    if (error != null) {
+                        log.warn("Could not recover pending payment for order {}", payment.getOrderId(), error);
+                    }
+                    recordOutcome(error == null ? outcome : "unresolved");
+                });
+            } catch (PaymentGatewayBusyException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not recover pending payment for order {}", payment.getOrderId(), e);
+                recordOutcome("unresolved");
+            }
+        }
+    }
+
+    private void recordOutcome(String outcome) {
+        Counter.builder("payments.recovery.outcomes").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+}
@@ -0,0 +1,200 @@
+package com.org.paymentservice.stats;
+
+import com.org.paymentservice.dto.MethodStatsResponse;
+import com.org.paymentservice.dto.PaymentStatsResponse;
+import com.org.paymentservice.dto.StatusStatsResponse;
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.PaymentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Rolling-window payment aggregates kept entirely in memory. The window is a ring of fixed-length
+// time buckets; a bucket whose slot comes round again is swapped for a fresh one with a CAS, so
+// recording never takes a lock. Counts and sums are LongAdders, which stripe under contention, and
+// amounts go into a log-linear histogram so percentiles cost a fixed amount of memory per bucket.
+// Every status transition is counted, so PENDING is the volume submitted and PAID and FAILED the
+// outcomes settled within the window. A write racing with the swap of its bucket can be lost; the
+// figures are for monitoring, not accounting.
+@Component
+public class PaymentStats {
+    // Each power of two is split into 2^SUB_BITS slots, bounding the percentile error to 1/2^SUB_BITS.
+    private static final int SUB_BITS = 3;
+    private static final int SLOTS = (64 - SUB_BITS + 1) << SUB_BITS;
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final LongSupplier clock;
+
+    @Autowired
+    public PaymentStats(@Value("${payments.stats.window:5m}") Duration window,
+                        @Value("${payments.stats.buckets:60}") int buckets) {
+        this(window, buckets, System::currentTimeMillis);
+    }
+
+    PaymentStats(Duration window, int buckets, LongSupplier clock) {
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.ring = new AtomicReferenceArray<>(buckets);
+        this.clock = clock;
+    }
+
+    public void record(String method, PaymentStatus status, Money amount) {
+        currentBucket().cell(method, status).add(amount.getMinorUnits());
+    }
+
+    private Bucket currentBucket() {
+        long tick = clock.getAsLong() / bucketMillis;
+        int slot = (int) (tick % ring.length());
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.tick >= tick) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(tick);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    public PaymentStatsResponse snapshot() {
+        long now = clock.getAsLong() / bucketMillis;
+        long oldest = now - ring.length() + 1;
+        Map<String, Map<PaymentStatus, Aggregate>> byMethod = new TreeMap<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket == null || bucket.tick < oldest || bucket.tick > now) {
+                continue;
+            }
+            bucket.cells.forEach((method, statuses) -> statuses.forEach((status, cell) ->
+                    byMethod.computeIfAbsent(method, m -> new EnumMap<>(PaymentStatus.class))
+                            .computeIfAbsent(status, s -> new Aggregate())
+                            .add(cell)));
+        }
+
+        PaymentStatsResponse response = new PaymentStatsResponse();
+        response.setWindowSeconds(bucketMillis * ring.length() / 1000);
+        List<MethodStatsResponse> methods = new ArrayList<>();
+        byMethod.forEach((method, statuses) -> methods.add(mapToResponse(method, statuses)));
+        response.setMethods(methods);
+        return response;
+    }
+
+    private static MethodStatsResponse mapToResponse(String method, Map<PaymentStatus, Aggregate> statuses) {
+        MethodStatsResponse res = new MethodStatsResponse();
+        res.setMethod(method);
+        Map<String, StatusStatsResponse> byStatus = new TreeMap<>();
+        statuses.forEach((status, aggregate) -> {
+            StatusStatsResponse s = new StatusStatsResponse();
+            s.setCount(aggregate.count);
+            s.setTotalAmount(Money.ofMinor(aggregate.sumMinor));
+            s.setP50(aggregate.percentile(0.50));
+            s.setP90(aggregate.percentile(0.90));
+            s.setP99(aggregate.percentile(0.99));
+            byStatus.put(status.name(), s);
+        });
+        res.setByStatus(byStatus);
+
+        long paid = countOf(statuses, PaymentStatus.PAID);
+        long settled = paid + countOf(statuses, PaymentStatus.FAILED);
+        res.setSuccessRatio(settled > 0 ? (double) paid / settled : null);
+        return res;
+    }
+
+    private static long countOf(Map<PaymentStatus, Aggregate> statuses, PaymentStatus status) {
+        Aggregate aggregate = statuses.get(status);
+        return aggregate != null ? aggregate.count : 0;
+    }
+
+    // Slot 0 holds zero; above that the slot is the value's leading bit position followed by the
+    // next SUB_BITS bits, so slots grow geometrically and amounts of any size fit.
+    static int slotOf(long minorUnits) {
+        if (minorUnits < (1L << SUB_BITS)) {
+            return (int) Math.max(0, minorUnits);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(minorUnits) - SUB_BITS;
+        int sub = (int) (minorUnits >>> exponent) & ((1 << SUB_BITS) - 1);
+        return ((exponent + 1) << SUB_BITS) + sub;
+    }
+
+    // Midpoint of the range of values that fall into the slot.
+    static long valueOf(int slot) {
+        if (slot < (1 << SUB_BITS)) {
+            return slot;
+        }
+        int exponent = (slot >>> SUB_BITS) - 1;
+        long lower = ((long) ((1 << SUB_BITS) + (slot & ((1 << SUB_BITS) - 1)))) << exponent;
+        return lower + ((1L << exponent) >>> 1);
+    }
+
+    private static final class Bucket {
+        final long tick;
+        final Map<String, Map<PaymentStatus, Cell>> cells = new ConcurrentHashMap<>();
+
+        Bucket(long tick) {
+            this.tick = tick;
+        }
+
+        Cell cell(String method, PaymentStatus status) {
+            return cells.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, s -> new Cell());
+        }
+    }
+
+    private static final class Cell {
+        final LongAdder count = new LongAdder();
+        final LongAdder sumMinor = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(SLOTS);
+
+        void add(long minorUnits) {
+            count.increment();
+            sumMinor.add(minorUnits);
+            histogram.incrementAndGet(slotOf(minorUnits));
+        }
+    }
+
+    private static final class Aggregate {
+        long count;
+        long sumMinor;
+        final long[] histogram = new long[SLOTS];
+
+        void add(Cell cell) {
+            count += cell.count.sum();
+            sumMinor += cell.sumMinor.sum();
+            for (int i = 0; i < SLOTS; i++) {
+                histogram[i] += cell.histogram.get(i);
+            }
+        }
+
+        Money percentile(double quantile) {
+            long total = 0;
+            for (long n : histogram) {
+                total += n;
+            }
+            if (total == 0) {
+                return null;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return Money.ofMinor(valueOf(i));
+                }
+            }
+            return Money.ofMinor(valueOf(SLOTS - 1));
+        }
+    }
+}
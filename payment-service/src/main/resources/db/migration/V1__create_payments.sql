@@ -0,0 +1,11 @@
+CREATE TABLE payments (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id     VARCHAR(255)   NOT NULL,
+    amount       NUMERIC(38, 2),
+    method       VARCHAR(255),
+    status       VARCHAR(255),
+    processed_at TIMESTAMP(6),
+    -- One payment per order. The unique index behind this constraint also serves
+    -- GET /payments/{orderId}, so no separate order_id index is needed.
+    CONSTRAINT uk_payments_order_id UNIQUE (order_id)
+);
@@ -0,0 +1 @@
+ALTER TABLE payments ADD COLUMN failure_reason VARCHAR(255);
@@ -0,0 +1 @@
+ALTER TABLE payments ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,35 @@
+CREATE TABLE reconciliation_runs (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_order_id       BIGINT       NOT NULL,
+    to_order_id         BIGINT       NOT NULL,
+    partition_size      INTEGER      NOT NULL,
+    status              VARCHAR(255) NOT NULL,
+    processed_order_ids BIGINT       NOT NULL,
+    discrepancy_count   BIGINT       NOT NULL,
+    started_at          TIMESTAMP(6),
+    finished_at         TIMESTAMP(6),
+    error               VARCHAR(1000)
+);
+
+-- One row per finished partition; written in the same transaction as its discrepancies, so a
+-- resumed run skips exactly the partitions whose results are already stored.
+CREATE TABLE reconciliation_partitions (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id        BIGINT NOT NULL,
+    from_order_id BIGINT NOT NULL,
+    to_order_id   BIGINT NOT NULL,
+    CONSTRAINT uk_reconciliation_partitions_run_from UNIQUE (run_id, from_order_id)
+);
+
+CREATE TABLE reconciliation_discrepancies (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id         BIGINT       NOT NULL,
+    order_id       VARCHAR(255) NOT NULL,
+    type           VARCHAR(255) NOT NULL,
+    order_amount   NUMERIC(38, 2),
+    payment_amount NUMERIC(38, 2),
+    payment_status VARCHAR(255),
+    payment_count  INTEGER      NOT NULL
+);
+
+CREATE INDEX idx_reconciliation_discrepancies_run ON reconciliation_discrepancies (run_id, order_id);
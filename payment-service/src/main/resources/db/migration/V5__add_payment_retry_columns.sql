@@ -0,0 +1,4 @@
+ALTER TABLE payments ADD COLUMN attempts INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE payments ADD COLUMN next_retry_at TIMESTAMP;
+
+CREATE INDEX idx_payments_next_retry_at ON payments (next_retry_at);
@@ -0,0 +1,2 @@
+-- Lets the archival job find old settled payments without scanning the table.
+CREATE INDEX idx_payments_processed_at ON payments (processed_at);
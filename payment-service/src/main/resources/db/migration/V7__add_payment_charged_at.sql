@@ -0,0 +1,4 @@
+-- When the current attempt was sent to the gateway, so payments left PENDING can be found and recovered.
+ALTER TABLE payments ADD COLUMN charged_at TIMESTAMP;
+
+CREATE INDEX idx_payments_status_charged_at ON payments (status, charged_at);
@@ -0,0 +1,27 @@
+package com.org.paymentservice.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_shouldFindEveryKeyAndRuleOutMostOthers_afterARoundTrip() throws Exception {
+        List<String> keys = IntStream.range(0, 10_000).mapToObj(i -> "order-" + i).toList();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BloomFilter.of(keys, keys.size()).write(new DataOutputStream(bytes));
+        BloomFilter filter = BloomFilter.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(keys.stream().allMatch(filter::mightContain));
+        long falsePositives = IntStream.range(10_000, 110_000).filter(i -> filter.mightContain("order-" + i)).count();
+        assertTrue(falsePositives < 2_000, "false positive rate too high: " + falsePositives + " in 100000");
+    }
+}
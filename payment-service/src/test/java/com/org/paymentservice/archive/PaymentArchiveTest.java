@@ -0,0 +1,87 @@
+package com.org.paymentservice.archive;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentArchiveTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2025, 1, 1, 10, 30, 0, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_shouldWritePartitionedFilesThatAreFoundAfterReopening() throws Exception {
+        PaymentArchive archive = new PaymentArchive(new SimpleMeterRegistry(), directory, 16);
+        archive.open();
+        List<Payment> payments = IntStream.range(0, 100)
+                .mapToObj(i -> payment("order-" + i, DAY_ONE.plusDays(i % 2)))
+                .toList();
+        archive.append(payments);
+        archive.close();
+
+        try (Stream<Path> partitions = Files.list(directory)) {
+            assertEquals(List.of("processed_date=2025-01-01", "processed_date=2025-01-02"),
+                    partitions.map(p -> p.getFileName().toString()).sorted().toList());
+        }
+
+        PaymentArchive reopened = new PaymentArchive(new SimpleMeterRegistry(), directory, 16);
+        reopened.open();
+        Payment found = reopened.find("order-41").orElseThrow();
+        assertEquals(Money.of("41.00"), found.getAmount());
+        assertEquals(PaymentStatus.PAID, found.getStatus());
+        assertEquals(DAY_ONE.plusDays(1), found.getProcessedAt());
+        assertNull(found.getFailureReason());
+        assertEquals(2, found.getAttempts());
+        assertTrue(reopened.find("order-100").isEmpty());
+        assertTrue(reopened.find("aaa").isEmpty());
+
+        Map<String, Payment> many = reopened.findAll(List.of("order-0", "order-99", "order-5", "missing"));
+        assertEquals(3, many.size());
+        assertEquals("Declined by issuer", many.get("order-5").getFailureReason());
+        reopened.close();
+    }
+
+    @Test
+    void find_shouldPreferTheNewestCopy() throws Exception {
+        PaymentArchive archive = new PaymentArchive(new SimpleMeterRegistry(), directory, 16);
+        archive.open();
+        Payment first = payment("order-1", DAY_ONE);
+        archive.append(List.of(first));
+        Payment second = payment("order-1", DAY_ONE);
+        second.setVersion(7L);
+        archive.append(List.of(second));
+
+        assertEquals(7L, archive.find("order-1").orElseThrow().getVersion());
+        archive.close();
+    }
+
+    private static Payment payment(String orderId, LocalDateTime processedAt) {
+        int n = Integer.parseInt(orderId.substring(orderId.indexOf('-') + 1));
+        Payment payment = new Payment();
+        payment.setId((long) n + 1);
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.ofMinor(n * 100L));
+        payment.setMethod("CARD");
+        payment.setStatus(n % 5 == 0 ? PaymentStatus.FAILED : PaymentStatus.PAID);
+        payment.setFailureReason(n % 5 == 0 ? "Declined by issuer" : null);
+        payment.setProcessedAt(processedAt);
+        payment.setAttempts(2);
+        payment.setVersion(3L);
+        return payment;
+    }
+}
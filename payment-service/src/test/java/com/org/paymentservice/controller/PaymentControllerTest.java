@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.org.paymentservice.dto.PaymentRequest;
 import com.org.paymentservice.dto.PaymentResponse;
 import com.org.paymentservice.exception.PaymentNotFoundException;
+import com.org.paymentservice.model.Money;
 import com.org.paymentservice.service.PaymentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +14,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -42,12 +45,12 @@ class PaymentControllerTest {
     void setUp() {
         request = new PaymentRequest();
         request.setOrderId("test-order-123");
-        request.setAmount(new BigDecimal("99.99"));
+        request.setAmount(Money.of("99.99"));
         request.setMethod("CREDIT_CARD");
 
         response = new PaymentResponse();
         response.setOrderId("test-order-123");
-        response.setAmount(new BigDecimal("99.99"));
+        response.setAmount(Money.of("99.99"));
         response.setMethod("CREDIT_CARD");
         response.setStatus("PAID");
         response.setProcessedAt(LocalDateTime.now());
@@ -62,11 +65,30 @@ class PaymentControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.orderId").value(response.getOrderId()))
-                .andExpect(jsonPath("$.amount").value(response.getAmount().doubleValue()))
+                .andExpect(jsonPath("$.amount").value(response.getAmount().toBigDecimal().doubleValue()))
                 .andExpect(jsonPath("$.method").value(response.getMethod()))
                 .andExpect(jsonPath("$.status").value(response.getStatus()));
     }
 
+    @Test
+    void processPayment_shouldRejectIncompleteRequests() throws Exception {
+        PaymentRequest noMethod = new PaymentRequest();
+        noMethod.setOrderId("test-order-123");
+        noMethod.setAmount(Money.of("99.99"));
+        PaymentRequest negative = new PaymentRequest();
+        negative.setOrderId("test-order-123");
+        negative.setAmount(Money.of("-1.00"));
+        negative.setMethod("CREDIT_CARD");
+
+        for (PaymentRequest invalid : List.of(noMethod, negative, new PaymentRequest())) {
+            mockMvc.perform(post("/payments")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(invalid)))
+                    .andExpect(status().isBadRequest());
+        }
+        verify(paymentService, never()).processPayment(any());
+    }
+
     @Test
     void getPayment_shouldReturnPayment_whenPaymentExists() throws Exception {
         String orderId = "test-order-123";
@@ -75,7 +97,7 @@ class PaymentControllerTest {
         mockMvc.perform(get("/payments/{orderId}", orderId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.orderId").value(response.getOrderId()))
-                .andExpect(jsonPath("$.amount").value(response.getAmount().doubleValue()))
+                .andExpect(jsonPath("$.amount").value(response.getAmount().toBigDecimal().doubleValue()))
                 .andExpect(jsonPath("$.method").value(response.getMethod()))
                 .andExpect(jsonPath("$.status").value(response.getStatus()));
     }
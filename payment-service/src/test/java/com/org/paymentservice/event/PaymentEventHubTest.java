@@ -0,0 +1,93 @@
+package com.org.paymentservice.event;
+
+import com.org.paymentservice.controller.PaymentController;
+import com.org.paymentservice.dto.PaymentResponse;
+import com.org.paymentservice.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class PaymentEventHubTest {
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @Test
+    void publish_shouldResumeAfterLastEventIdAndDropDuplicatesAndOlderVersions() throws Exception {
+        PaymentEventHub hub = new PaymentEventHub(new SimpleMeterRegistry(), Duration.ofMinutes(1), Runnable::run);
+        MvcResult stream = subscribe(hub, "2");
+
+        hub.publish(payment("PENDING"), 1);
+        hub.publish(payment("PENDING"), 2);
+        hub.publish(payment("PAID"), 3);
+        hub.publish(payment("PAID"), 3);
+        hub.publish(payment("PENDING"), 2);
+
+        assertEquals(List.of("3"), eventIds(stream));
+        assertTrue(stream.getResponse().getContentAsString().contains("\"status\":\"PAID\""));
+    }
+
+    @Test
+    void publish_shouldWriteOnTheSenderAndKeepOnlyTheLatestUnsentStatus() throws Exception {
+        Executor sender = queued::add;
+        PaymentEventHub hub = new PaymentEventHub(new SimpleMeterRegistry(), Duration.ofMinutes(1), sender);
+        MvcResult stream = subscribe(hub, null);
+
+        hub.publish(payment("PENDING"), 1);
+        hub.publish(payment("PAID"), 2);
+        hub.heartbeat();
+
+        assertEquals(List.of(), eventIds(stream));
+        assertEquals(1, queued.size());
+        queued.remove(0).run();
+
+        assertEquals(List.of("2"), eventIds(stream));
+        assertTrue(queued.isEmpty());
+
+        hub.heartbeat();
+        queued.remove(0).run();
+        assertTrue(stream.getResponse().getContentAsString().contains(":heartbeat"));
+    }
+
+    private static MvcResult subscribe(PaymentEventHub hub, String lastEventId) throws Exception {
+        PaymentService paymentService = mock(PaymentService.class);
+        when(paymentService.subscribe(eq("order-1"), any())).thenAnswer(invocation ->
+                hub.subscribe("order-1", invocation.getArgument(1)));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PaymentController(paymentService)).build();
+        MockHttpServletRequestBuilder events = get("/payments/order-1/events");
+        if (lastEventId != null) {
+            events.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(events).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static List<String> eventIds(MvcResult stream) throws Exception {
+        return stream.getResponse().getContentAsString().lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring(3))
+                .toList();
+    }
+
+    private static PaymentResponse payment(String status) {
+        PaymentResponse response = new PaymentResponse();
+        response.setOrderId("order-1");
+        response.setStatus(status);
+        return response;
+    }
+}
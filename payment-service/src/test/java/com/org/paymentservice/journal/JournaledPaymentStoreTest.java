@@ -0,0 +1,178 @@
+package com.org.paymentservice.journal;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournaledPaymentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final PaymentRepository repository = mock(PaymentRepository.class);
+
+    @Test
+    void applier_shouldRetryAFailedBatchWithoutCheckpointingPastIt() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(batchUpdate(jdbcTemplate))
+                .thenThrow(new TransientDataAccessResourceException("database down"))
+                .thenThrow(new TransientDataAccessResourceException("database down"))
+                .thenReturn(new int[0][]);
+        JournaledPaymentStore store = store(jdbcTemplate);
+        store.start();
+        try {
+            store.claim(payment("order-1"));
+            await(() -> store.health().getStatus() == Status.DOWN);
+            assertFalse(Files.exists(directory.resolve("checkpoint")));
+            assertEquals(PaymentStatus.PENDING, store.findByOrderId("order-1").orElseThrow().getStatus());
+
+            await(() -> store.health().getStatus() == Status.UP && (int) store.health().getDetails().get("unapplied") == 0);
+            assertEquals("1", Files.readString(directory.resolve("checkpoint")));
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    void start_shouldReplayRecordsWhoseApplyFailedBeforeShutdown() throws Exception {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(batchUpdate(failing)).thenThrow(new TransientDataAccessResourceException("database down"));
+        JournaledPaymentStore store = store(failing);
+        store.start();
+        store.claim(payment("order-1"));
+        store.claim(payment("order-2"));
+        await(() -> store.health().getStatus() == Status.DOWN);
+        store.stop();
+
+        JdbcTemplate recovered = mock(JdbcTemplate.class);
+        JournaledPaymentStore restarted = store(recovered);
+        restarted.start();
+        restarted.stop();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<JournalRecord>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(recovered, atLeastOnce()).batchUpdate(startsWith("INSERT"), inserted.capture(), anyInt(), any());
+        assertEquals(List.of("order-1", "order-2"), inserted.getAllValues().stream()
+                .flatMap(Collection::stream).map(JournalRecord::orderId).toList());
+        assertEquals("2", Files.readString(directory.resolve("checkpoint")));
+    }
+
+    @Test
+    void update_shouldKeepThePreviousState_whenTheAppendFails() throws Exception {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(batchUpdate(failing)).thenThrow(new TransientDataAccessResourceException("database down"));
+        JournaledPaymentStore store = store(failing);
+        store.start();
+        Payment claimed = store.claim(payment("order-1")).payment();
+        store.stop();
+
+        claimed.setStatus(PaymentStatus.PAID);
+        assertThrows(IllegalStateException.class, () -> store.update(claimed));
+
+        Payment current = store.findByOrderId("order-1").orElseThrow();
+        assertEquals(PaymentStatus.PENDING, current.getStatus());
+        assertEquals(0L, current.getVersion());
+    }
+
+    @Test
+    void applier_shouldCheckpointOnlyBelowRecordsStillWaitingToBeAcknowledged() throws Exception {
+        GatedJournal journal = new GatedJournal(directory);
+        JournaledPaymentStore store = new JournaledPaymentStore(repository, mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), journal, 100);
+        store.start();
+        try {
+            CompletableFuture<?> first = CompletableFuture.runAsync(() -> store.claim(payment("order-1")));
+            await(() -> journal.gates.size() == 1);
+            CompletableFuture<?> second = CompletableFuture.runAsync(() -> store.claim(payment("order-2")));
+            await(() -> journal.gates.size() == 2);
+
+            // Sequence 2 is acknowledged and applied first; 1 is durable but its writer has not woken.
+            journal.gates.get(1).complete(null);
+            second.get(5, TimeUnit.SECONDS);
+            await(() -> (int) store.health().getDetails().get("unapplied") == 1);
+            assertFalse(Files.exists(directory.resolve("checkpoint")));
+
+            journal.gates.get(0).complete(null);
+            first.get(5, TimeUnit.SECONDS);
+            await(() -> (int) store.health().getDetails().get("unapplied") == 0);
+            assertEquals("2", Files.readString(directory.resolve("checkpoint")));
+        } finally {
+            store.stop();
+        }
+    }
+
+    private JournaledPaymentStore store(JdbcTemplate jdbcTemplate) {
+        return new JournaledPaymentStore(repository, jdbcTemplate, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), directory, DataSize.ofKilobytes(64), 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int[][] batchUpdate(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    // Holds each append back until the test releases it, whatever order the journal completed them in.
+    private static class GatedJournal extends PaymentJournal {
+        private final List<CompletableFuture<Void>> gates = new CopyOnWriteArrayList<>();
+
+        GatedJournal(Path directory) {
+            super(directory, 64 * 1024);
+        }
+
+        @Override
+        public CompletableFuture<JournalRecord> append(Payment payment) {
+            CompletableFuture<Void> gate = new CompletableFuture<>();
+            CompletableFuture<JournalRecord> durable = super.append(payment);
+            gates.add(gate);
+            return durable.thenCombine(gate, (record, released) -> record);
+        }
+    }
+
+    private static Payment payment(String orderId) {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.of("12.34"));
+        payment.setMethod("CREDIT_CARD");
+        payment.setStatus(PaymentStatus.PENDING);
+        return payment;
+    }
+}
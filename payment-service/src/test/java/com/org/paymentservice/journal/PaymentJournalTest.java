@@ -0,0 +1,95 @@
+package com.org.paymentservice.journal;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_shouldReplayRecordsWrittenAfterLastCheckpoint() throws Exception {
+        PaymentJournal journal = new PaymentJournal(directory, 4096);
+        assertTrue(journal.open().isEmpty());
+        IntStream.range(0, 50).mapToObj(i -> journal.append(payment("order-" + i)))
+                .toList()
+                .forEach(durable -> durable.join());
+        journal.checkpoint(20);
+        journal.close();
+
+        PaymentJournal reopened = new PaymentJournal(directory, 4096);
+        List<JournalRecord> replay = reopened.open();
+        reopened.close();
+
+        assertEquals(30, replay.size());
+        assertEquals(21, replay.get(0).sequence());
+        assertEquals("order-20", replay.get(0).orderId());
+        assertEquals(Money.of("12.34"), replay.get(0).toPayment().getAmount());
+        assertEquals(50, replay.get(29).sequence());
+    }
+
+    @Test
+    void open_shouldDiscardTornRecordAtEndOfSegment() throws Exception {
+        PaymentJournal journal = new PaymentJournal(directory, 4096);
+        journal.open();
+        journal.append(payment("order-1")).join();
+        journal.append(payment("order-2")).join();
+        journal.close();
+
+        Path segment = directory.resolve("segment-0000000000.log");
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(Files.size(segment) - 4096 + firstFrameLength(segment) + 20);
+            file.write(0x7f);
+        }
+
+        PaymentJournal reopened = new PaymentJournal(directory, 4096);
+        List<JournalRecord> replay = reopened.open();
+        reopened.close();
+
+        assertEquals(1, replay.size());
+        assertEquals("order-1", replay.get(0).orderId());
+    }
+
+    @Test
+    void decode_shouldRejectRecordCutShort() throws Exception {
+        Payment payment = payment("order-1");
+        payment.setChargedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        byte[] encoded = JournalRecord.of(7, payment).encode();
+
+        assertEquals(payment.getChargedAt(), JournalRecord.decode(ByteBuffer.wrap(encoded)).chargedAt());
+        assertThrows(EOFException.class,
+                () -> JournalRecord.decode(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1))));
+    }
+
+    private static int firstFrameLength(Path segment) throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            return 8 + file.readInt();
+        }
+    }
+
+    private static Payment payment(String orderId) {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.of("12.34"));
+        payment.setMethod("CREDIT_CARD");
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setVersion(0L);
+        return payment;
+    }
+}
@@ -0,0 +1,114 @@
+package com.org.paymentservice.replica;
+
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.repository.PaymentStore;
+import com.org.paymentservice.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two embedded databases behind the routing DataSource. Replication only happens when a test calls
+// the stand-in, so each test decides what the replica has.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-test-primary;DB_CLOSE_DELAY=-1",
+        "payments.replica.enabled=true",
+        "payments.replica.url=jdbc:h2:mem:replica-test-replica;DB_CLOSE_DELAY=-1",
+        "payments.replica.replication-interval=1h",
+        "payments.replica.read-your-writes-window=1s"
+})
+class ReplicaReadsIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentStore store;
+
+    @Autowired
+    private ReplicaReads replicaReads;
+
+    @Autowired
+    private ReplicationStandIn replication;
+
+    @Autowired
+    private ReplicaDataSources dataSources;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private String orderId;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(dataSources.primary());
+        orderId = "replica-" + UUID.randomUUID();
+    }
+
+    @Test
+    void getPayment_shouldBeServedFromTheReplica_onceReplicated() {
+        store.claim(paidPayment());
+        replication.replicate();
+        setPrimaryStatus(PaymentStatus.FAILED);
+
+        double before = reads("replica");
+        // The replica still has the replicated copy.
+        assertEquals("PAID", paymentService.getPaymentByOrderId(orderId).getStatus());
+        assertEquals(before + 1, reads("replica"));
+    }
+
+    @Test
+    void getPayment_shouldReadItsOwnWritesFromThePrimary_withinTheWindowOnly() throws Exception {
+        store.claim(paidPayment());
+        replication.replicate();
+        setPrimaryStatus(PaymentStatus.FAILED);
+        replicaReads.wrote(orderId);
+
+        double before = reads("primary");
+        assertEquals("FAILED", paymentService.getPaymentByOrderId(orderId).getStatus());
+        assertEquals(before + 1, reads("primary"));
+
+        Thread.sleep(1100);
+        assertEquals("PAID", paymentService.getPaymentByOrderId(orderId).getStatus());
+    }
+
+    @Test
+    void getPayment_shouldFallBackToThePrimary_whenTheReplicaHasNotCaughtUp() {
+        store.claim(paidPayment());
+
+        double replicaBefore = reads("replica");
+        double primaryBefore = reads("primary");
+        assertEquals("PAID", paymentService.getPaymentByOrderId(orderId).getStatus());
+        assertEquals(replicaBefore, reads("replica"));
+        assertEquals(primaryBefore + 1, reads("primary"));
+    }
+
+    private void setPrimaryStatus(PaymentStatus status) {
+        assertEquals(1, primary.update("UPDATE payments SET status = ? WHERE order_id = ?", status.name(), orderId));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("payments.replica.reads").tag("target", target).counter().count();
+    }
+
+    private Payment paidPayment() {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.of("25.00"));
+        payment.setMethod("CREDIT_CARD");
+        payment.setStatus(PaymentStatus.PAID);
+        payment.setAttempts(1);
+        payment.setProcessedAt(LocalDateTime.now());
+        return payment;
+    }
+}
@@ -0,0 +1,89 @@
+package com.org.paymentservice.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentRetrySchedulerTest {
+
+    private final PaymentRetryScheduler scheduler =
+            new PaymentRetryScheduler(new SimpleMeterRegistry(), 4, Duration.ofSeconds(1), Duration.ofSeconds(5), 1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void nextAttemptAt_shouldDoubleBackoffUpToTheCapAndJitterOverItsUpperHalf() {
+        assertBackoffBetween(1, Duration.ofMillis(500), Duration.ofSeconds(1));
+        assertBackoffBetween(2, Duration.ofSeconds(1), Duration.ofSeconds(2));
+        assertBackoffBetween(3, Duration.ofSeconds(2), Duration.ofSeconds(4));
+        assertBackoffBetween(4, Duration.ofMillis(2500), Duration.ofSeconds(5));
+        assertBackoffBetween(40, Duration.ofMillis(2500), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void canRetry_shouldStopAtMaxAttempts() {
+        assertTrue(scheduler.canRetry(3));
+        assertFalse(scheduler.canRetry(4));
+    }
+
+    @Test
+    void schedule_shouldRunDueRetriesOneWorkerAtATimeAndHoldBackLaterOnes() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+
+        scheduler.schedule("order-1", LocalDateTime.now(), () -> {
+            firstRunning.countDown();
+            await(releaseFirst);
+        });
+        scheduler.schedule("order-2", LocalDateTime.now(), secondRan::countDown);
+        scheduler.schedule("order-3", LocalDateTime.now().plusSeconds(30), laterRan::countDown);
+
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+        // The only worker is busy, so the second due retry waits in the queue.
+        assertFalse(secondRan.await(200, TimeUnit.MILLISECONDS));
+        releaseFirst.countDown();
+        assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+        assertFalse(laterRan.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void schedule_shouldKeepDispatchingAfterAFailedRetry() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        scheduler.schedule("order-1", LocalDateTime.now(), () -> {
+            throw new IllegalStateException("database down");
+        });
+        scheduler.schedule("order-2", LocalDateTime.now().plusNanos(1_000_000), ran::countDown);
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    private void assertBackoffBetween(int attempts, Duration min, Duration max) {
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime before = LocalDateTime.now();
+            LocalDateTime dueAt = scheduler.nextAttemptAt(attempts);
+            Duration delay = Duration.between(before, dueAt);
+            assertTrue(delay.compareTo(min) >= 0 && delay.compareTo(max.plusMillis(50)) <= 0,
+                    "attempt " + attempts + ": expected a delay between " + min + " and " + max + " but was " + delay);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.archive.PaymentArchive;
+import com.org.paymentservice.dto.BatchPaymentItemResponse;
+import com.org.paymentservice.dto.BatchPaymentResponse;
+import com.org.paymentservice.dto.PaymentRequest;
+import com.org.paymentservice.exception.InvalidRequestException;
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
+import com.org.paymentservice.gateway.PaymentGatewayClient;
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.replica.ReplicaReads;
+import com.org.paymentservice.repository.PaymentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentBatchServiceTest {
+
+    @Mock
+    private PaymentStore store;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentGatewayClient gatewayClient;
+
+    @Mock
+    private PaymentGatewayClient.Reservation reservation;
+
+    @Mock
+    private ReplicaReads replicaReads;
+
+    @Mock
+    private PaymentArchive archive;
+
+    private PaymentBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentBatchService(store, paymentService, gatewayClient, replicaReads, archive, 100,
+                Duration.ofSeconds(1), 10, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void processBatch_shouldReportAnOutcomePerItem() {
+        Payment existing = PaymentService.pendingPayment(request("order-2", "5.00"));
+        when(store.claimAll(argThat(payments -> payments.size() == 2))).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            return List.of(new PaymentStore.Claim(payments.get(0), true), new PaymentStore.Claim(existing, false));
+        });
+
+        BatchPaymentResponse response = service.processBatch(List.of(
+                request("order-1", "10.00"),
+                request("order-2", "5.00"),
+                request("order-1", "10.00"),
+                request("order-3", "0.00")));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getExisting());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(1, response.getInvalid());
+        assertEquals(List.of("CREATED", "EXISTING", "DUPLICATE", "INVALID"),
+                response.getResults().stream().map(BatchPaymentItemResponse::getOutcome).toList());
+        assertEquals("Duplicate of item 0", response.getResults().get(2).getError());
+        assertEquals("PENDING", response.getResults().get(0).getPayment().getStatus());
+        // Charging is left to the charger, which reads the claimed payments back from the store.
+        verifyNoInteractions(gatewayClient, paymentService);
+    }
+
+    @Test
+    void chargeAwaiting_shouldMarkEachPaymentSentBeforeChargingIt() {
+        Payment first = PaymentService.pendingPayment(request("order-1", "10.00"));
+        Payment second = PaymentService.pendingPayment(request("order-2", "5.00"));
+        when(store.findAwaitingCharge(10)).thenReturn(List.of(first, second));
+        when(gatewayClient.reserve(any(Duration.class))).thenReturn(reservation);
+        when(store.update(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(2, service.chargeAwaiting());
+
+        InOrder inOrder = inOrder(store, paymentService);
+        inOrder.verify(store).update(argThat(p -> p.getOrderId().equals("order-1") && p.getChargedAt() != null));
+        inOrder.verify(paymentService).charge(first, reservation);
+        inOrder.verify(store).update(argThat(p -> p.getOrderId().equals("order-2") && p.getChargedAt() != null));
+        inOrder.verify(paymentService).charge(second, reservation);
+    }
+
+    @Test
+    void chargeAwaiting_shouldLeaveTheRestForLater_whenGatewayStaysAtCapacity() {
+        Payment first = PaymentService.pendingPayment(request("order-1", "10.00"));
+        Payment second = PaymentService.pendingPayment(request("order-2", "5.00"));
+        when(store.findAwaitingCharge(10)).thenReturn(List.of(first, second));
+        when(gatewayClient.reserve(any(Duration.class)))
+                .thenReturn(reservation)
+                .thenThrow(new PaymentGatewayBusyException("Payment gateway is at capacity", 1));
+        when(store.update(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(1, service.chargeAwaiting());
+
+        verify(paymentService).charge(first, reservation);
+        verify(store, times(1)).update(any(Payment.class));
+        assertNull(second.getChargedAt());
+    }
+
+    @Test
+    void chargeAwaiting_shouldSkipPaymentsAnotherInstanceMarkedFirst() {
+        Payment taken = PaymentService.pendingPayment(request("order-1", "10.00"));
+        when(store.findAwaitingCharge(10)).thenReturn(List.of(taken));
+        when(gatewayClient.reserve(any(Duration.class))).thenReturn(reservation);
+        when(store.update(any(Payment.class))).thenThrow(new ObjectOptimisticLockingFailureException(Payment.class, 1L));
+
+        assertEquals(0, service.chargeAwaiting());
+
+        verify(reservation).close();
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void processBatch_shouldRejectOversizedBatch() {
+        List<PaymentRequest> requests = Collections.nCopies(101, request("order-1", "1.00"));
+
+        assertThrows(InvalidRequestException.class, () -> service.processBatch(requests));
+        verifyNoInteractions(store);
+    }
+
+    private static PaymentRequest request(String orderId, String amount) {
+        PaymentRequest request = new PaymentRequest();
+        request.setOrderId(orderId);
+        request.setAmount(Money.of(amount));
+        request.setMethod("CREDIT_CARD");
+        return request;
+    }
+}
@@ -1,24 +1,41 @@
 package com.org.paymentservice.service;
 
+import com.org.paymentservice.archive.PaymentArchive;
 import com.org.paymentservice.dto.PaymentRequest;
 import com.org.paymentservice.dto.PaymentResponse;
+import com.org.paymentservice.event.PaymentEventHub;
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
 import com.org.paymentservice.exception.PaymentNotFoundException;
+import com.org.paymentservice.gateway.GatewayResult;
+import com.org.paymentservice.gateway.PaymentGatewayClient;
+import com.org.paymentservice.model.Money;
 import com.org.paymentservice.model.Payment;
 import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.replica.ReplicaReads;
+import com.org.paymentservice.repository.JpaPaymentStore;
 import com.org.paymentservice.repository.PaymentRepository;
+import com.org.paymentservice.retry.PaymentRetryScheduler;
+import com.org.paymentservice.stats.PaymentStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +44,21 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository repository;
 
-    @InjectMocks
+    @Mock
+    private PaymentGatewayClient gatewayClient;
+
+    @Mock
+    private PaymentGatewayClient.Reservation reservation;
+
+    @Mock
+    private PaymentEventHub eventHub;
+
+    @Mock
+    private PaymentRetryScheduler retryScheduler;
+
+    @Mock
+    private PaymentArchive archive;
+
     private PaymentService service;
 
     private PaymentRequest request;
@@ -35,15 +66,20 @@ class PaymentServiceTest {
 
     @BeforeEach
     void setUp() {
+        service = new PaymentService(new JpaPaymentStore(repository), gatewayClient, eventHub,
+                new PaymentStats(Duration.ofMinutes(5), 60), retryScheduler,
+                new ReplicaReads(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, Duration.ofSeconds(5)),
+                archive);
+
         request = new PaymentRequest();
         request.setOrderId("test-order-123");
-        request.setAmount(new BigDecimal("99.99"));
+        request.setAmount(Money.of("99.99"));
         request.setMethod("CREDIT_CARD");
 
         payment = new Payment();
         payment.setId(1L);
         payment.setOrderId("test-order-123");
-        payment.setAmount(new BigDecimal("99.99"));
+        payment.setAmount(Money.of("99.99"));
         payment.setMethod("CREDIT_CARD");
         payment.setStatus(PaymentStatus.PAID);
         payment.setProcessedAt(LocalDateTime.now());
@@ -51,6 +87,8 @@ class PaymentServiceTest {
 
     @Test
     void processPayment_shouldReturnPaymentResponse() {
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(new CompletableFuture<>());
         when(repository.save(any(Payment.class))).thenReturn(payment);
 
         PaymentResponse response = service.processPayment(request);
@@ -64,6 +102,183 @@ class PaymentServiceTest {
         verify(repository, times(1)).save(any(Payment.class));
     }
 
+    @Test
+    void processPayment_shouldReturnStoredPayment_whenOrderAlreadyPaid() {
+        when(repository.findByOrderId(request.getOrderId())).thenReturn(Optional.of(payment));
+
+        PaymentResponse response = service.processPayment(request);
+
+        assertEquals(payment.getStatus().name(), response.getStatus());
+        assertEquals(payment.getProcessedAt(), response.getProcessedAt());
+        verify(repository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void processPayment_shouldReturnWinningPayment_whenConcurrentInsertLoses() {
+        when(repository.findByOrderId(request.getOrderId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(payment));
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(repository.save(any(Payment.class))).thenThrow(new DataIntegrityViolationException("uk_payments_order_id"));
+
+        PaymentResponse response = service.processPayment(request);
+
+        assertEquals(payment.getStatus().name(), response.getStatus());
+        assertEquals(payment.getProcessedAt(), response.getProcessedAt());
+        verify(reservation).close();
+        verify(reservation, never()).charge(any());
+    }
+
+    @Test
+    void processPayment_shouldReleaseTheGatewaySlot_whenAnythingFailsBeforeTheChargeIsSent() {
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("publish failed")).when(eventHub).publish(any(), anyLong());
+
+        assertThrows(IllegalStateException.class, () -> service.processPayment(request));
+
+        verify(reservation, atLeastOnce()).close();
+        verify(reservation, never()).charge(any());
+    }
+
+    @Test
+    void processPayment_shouldStorePendingAndSettleWhenGatewayAnswers() {
+        CompletableFuture<GatewayResult> answer = new CompletableFuture<>();
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(answer);
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PaymentResponse response = service.processPayment(request);
+
+        assertEquals(PaymentStatus.PENDING.name(), response.getStatus());
+        assertNull(response.getProcessedAt());
+
+        answer.complete(GatewayResult.declined("Declined by issuer"));
+
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(repository, times(2)).save(saved.capture());
+        Payment settled = saved.getValue();
+        assertEquals(PaymentStatus.FAILED, settled.getStatus());
+        assertEquals("Declined by issuer", settled.getFailureReason());
+        assertNotNull(settled.getProcessedAt());
+        verify(eventHub).publish(argThat(event -> event.getStatus().equals("PENDING")), anyLong());
+        verify(eventHub).publish(argThat(event -> event.getStatus().equals("FAILED")), anyLong());
+    }
+
+    @Test
+    void processPayment_shouldScheduleRetryAndChargeAgainUnderANewKey_whenGatewayDeclines() {
+        CompletableFuture<GatewayResult> first = new CompletableFuture<>();
+        CompletableFuture<GatewayResult> second = new CompletableFuture<>();
+        LocalDateTime dueAt = LocalDateTime.now().plusSeconds(1);
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(first).thenReturn(second);
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(retryScheduler.canRetry(1)).thenReturn(true);
+        when(retryScheduler.nextAttemptAt(1)).thenReturn(dueAt);
+
+        service.processPayment(request);
+        first.complete(GatewayResult.declined("Insufficient funds"));
+
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(repository, times(2)).save(saved.capture());
+        Payment failed = saved.getValue();
+        assertEquals(PaymentStatus.FAILED, failed.getStatus());
+        assertEquals(dueAt, failed.getNextRetryAt());
+        verify(retryScheduler).schedule(eq(request.getOrderId()), eq(dueAt), any());
+
+        when(repository.findByOrderId(request.getOrderId())).thenReturn(Optional.of(failed));
+        service.retry(request.getOrderId());
+        // Nothing is written until the gateway answers.
+        verify(repository, times(2)).save(any(Payment.class));
+        verify(reservation).charge(argThat(charge -> charge.idempotencyKey().equals("test-order-123:2")));
+        second.complete(GatewayResult.success());
+
+        verify(repository, times(3)).save(saved.capture());
+        Payment paid = saved.getValue();
+        assertEquals(PaymentStatus.PAID, paid.getStatus());
+        assertEquals(2, paid.getAttempts());
+        assertNull(paid.getNextRetryAt());
+        verify(retryScheduler).recordOutcome("paid");
+    }
+
+    @Test
+    void processPayment_shouldLeavePaymentPendingWithoutRetrying_whenOutcomeIsUnknown() {
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(CompletableFuture.completedFuture(GatewayResult.unknown("Gateway timeout")));
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.processPayment(request);
+
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertEquals(PaymentStatus.PENDING, saved.getValue().getStatus());
+        assertEquals("Gateway timeout", saved.getValue().getFailureReason());
+        assertNotNull(saved.getValue().getChargedAt());
+        verify(reservation).charge(argThat(charge -> charge.idempotencyKey().equals("test-order-123:1")));
+        verifyNoInteractions(retryScheduler);
+    }
+
+    @Test
+    void processPayment_shouldNotRetry_whenIssuerDeclinesHard() {
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(CompletableFuture.completedFuture(GatewayResult.hardDeclined("Card reported stolen")));
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.processPayment(request);
+
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertEquals(PaymentStatus.FAILED, saved.getValue().getStatus());
+        assertNull(saved.getValue().getNextRetryAt());
+        verify(retryScheduler, never()).schedule(any(), any(), any());
+    }
+
+    @Test
+    void retry_shouldDeferWithoutUsingAnAttempt_whenGatewayIsAtCapacity() {
+        Payment failed = failedPayment();
+        LocalDateTime later = LocalDateTime.now().plusSeconds(2);
+        when(repository.findByOrderId(failed.getOrderId())).thenReturn(Optional.of(failed));
+        when(gatewayClient.reserve()).thenThrow(new PaymentGatewayBusyException("Payment gateway is at capacity", 1));
+        when(retryScheduler.nextAttemptAt(1)).thenReturn(later);
+
+        service.retry(failed.getOrderId());
+
+        verify(retryScheduler).recordOutcome("deferred");
+        verify(retryScheduler).schedule(eq(failed.getOrderId()), eq(later), any());
+        assertEquals(1, failed.getAttempts());
+        verify(repository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void retry_shouldRetryUnderTheSameKey_whenTheAnswerCannotBeStored() {
+        String orderId = request.getOrderId();
+        LocalDateTime later = LocalDateTime.now().plusSeconds(2);
+        // The stored payment is unchanged by the lost answer, so the second read finds it as before.
+        when(repository.findByOrderId(orderId)).thenReturn(Optional.of(failedPayment())).thenReturn(Optional.of(failedPayment()));
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.charge(any())).thenReturn(CompletableFuture.completedFuture(GatewayResult.success()));
+        when(repository.save(any(Payment.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(retryScheduler.nextAttemptAt(2)).thenReturn(later);
+
+        service.retry(orderId);
+
+        ArgumentCaptor<Runnable> again = ArgumentCaptor.forClass(Runnable.class);
+        verify(retryScheduler).schedule(eq(orderId), eq(later), again.capture());
+        again.getValue().run();
+
+        verify(reservation, times(2)).charge(argThat(charge -> charge.idempotencyKey().equals("test-order-123:2")));
+    }
+
+    @Test
+    void processPayment_shouldRejectWithoutStoring_whenGatewayIsAtCapacity() {
+        when(gatewayClient.reserve()).thenThrow(new PaymentGatewayBusyException("Payment gateway is at capacity", 1));
+
+        assertThrows(PaymentGatewayBusyException.class, () -> service.processPayment(request));
+        verify(repository, never()).save(any(Payment.class));
+    }
+
     @Test
     void getPaymentByOrderId_shouldReturnPaymentResponse_whenPaymentExists() {
         String orderId = "test-order-123";
@@ -91,4 +306,65 @@ class PaymentServiceTest {
         assertEquals("Payment not found for order ID: " + orderId, exception.getMessage());
         verify(repository, times(1)).findByOrderId(orderId);
     }
+
+    @Test
+    void recover_shouldSettleFromGatewayStatus_withoutChargingAgain() {
+        Payment stale = stalePending();
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.inquire(any())).thenReturn(CompletableFuture.completedFuture(Optional.of(GatewayResult.success())));
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("settled", service.recover(stale).join());
+
+        assertEquals(PaymentStatus.PAID, stale.getStatus());
+        verify(reservation).close();
+        verify(reservation, never()).charge(any());
+    }
+
+    @Test
+    void recover_shouldChargeAgain_whenGatewayNeverReceivedTheCharge() {
+        Payment stale = stalePending();
+        LocalDateTime sentBefore = stale.getChargedAt();
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.inquire(any())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(reservation.charge(any())).thenReturn(CompletableFuture.completedFuture(GatewayResult.success()));
+        when(repository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("recharged", service.recover(stale).join());
+
+        assertTrue(stale.getChargedAt().isAfter(sentBefore));
+        verify(reservation).charge(argThat(charge -> charge.orderId().equals(stale.getOrderId())));
+        assertEquals(PaymentStatus.PAID, stale.getStatus());
+    }
+
+    @Test
+    void recover_shouldLeavePaymentPending_whenInquiryFails() {
+        Payment stale = stalePending();
+        when(gatewayClient.reserve()).thenReturn(reservation);
+        when(reservation.inquire(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Gateway down")));
+
+        assertThrows(CompletionException.class, () -> service.recover(stale).join());
+
+        assertEquals(PaymentStatus.PENDING, stale.getStatus());
+        verify(repository, never()).save(any(Payment.class));
+        verify(reservation, never()).charge(any());
+    }
+
+    private Payment stalePending() {
+        Payment stale = PaymentService.pendingPayment(request);
+        stale.setId(1L);
+        stale.setVersion(1L);
+        stale.setChargedAt(LocalDateTime.now().minusMinutes(10));
+        return stale;
+    }
+
+    private Payment failedPayment() {
+        Payment failed = PaymentService.pendingPayment(request);
+        failed.setId(1L);
+        failed.setVersion(1L);
+        failed.setStatus(PaymentStatus.FAILED);
+        failed.setFailureReason("Insufficient funds");
+        failed.setNextRetryAt(LocalDateTime.now());
+        return failed;
+    }
 }
@@ -0,0 +1,56 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.client.OrderServiceClient.OrderTotal;
+import com.org.paymentservice.model.DiscrepancyType;
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.model.PaymentStatus;
+import com.org.paymentservice.model.ReconciliationDiscrepancy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationMergerTest {
+
+    @Test
+    void merge_shouldReportEachKindOfDiscrepancy() {
+        List<OrderTotal> orders = List.of(
+                new OrderTotal(5, Money.of("10.00")),   // matched
+                new OrderTotal(1, Money.of("10.00")),   // missing payment
+                new OrderTotal(2, Money.of("10.00")),   // amount mismatch
+                new OrderTotal(3, Money.of("10.00")),   // not paid
+                new OrderTotal(4, Money.of("10.00")));  // duplicate payments
+        List<Payment> payments = List.of(
+                payment("4", "10.00", PaymentStatus.PAID),
+                payment("2", "9.99", PaymentStatus.PAID),
+                payment("5", "10.00", PaymentStatus.PAID),
+                payment("3", "10.00", PaymentStatus.FAILED),
+                payment("4", "10.00", PaymentStatus.PAID),
+                payment("10", "1.00", PaymentStatus.PAID)); // orphan
+
+        Map<String, ReconciliationDiscrepancy> byOrder = ReconciliationMerger.merge(7L, orders, payments).stream()
+                .collect(Collectors.toMap(ReconciliationDiscrepancy::getOrderId, d -> d));
+
+        assertEquals(5, byOrder.size());
+        assertEquals(DiscrepancyType.MISSING_PAYMENT, byOrder.get("1").getType());
+        assertEquals(DiscrepancyType.AMOUNT_MISMATCH, byOrder.get("2").getType());
+        assertEquals(Money.of("9.99"), byOrder.get("2").getPaymentAmount());
+        assertEquals(DiscrepancyType.NOT_PAID, byOrder.get("3").getType());
+        assertEquals(DiscrepancyType.DUPLICATE_PAYMENT, byOrder.get("4").getType());
+        assertEquals(2, byOrder.get("4").getPaymentCount());
+        assertEquals(DiscrepancyType.ORPHAN_PAYMENT, byOrder.get("10").getType());
+        assertTrue(byOrder.values().stream().allMatch(d -> d.getRunId() == 7L));
+    }
+
+    private static Payment payment(String orderId, String amount, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        payment.setAmount(Money.of(amount));
+        payment.setStatus(status);
+        return payment;
+    }
+}
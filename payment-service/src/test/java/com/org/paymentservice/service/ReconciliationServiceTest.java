@@ -0,0 +1,133 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.archive.PaymentArchive;
+import com.org.paymentservice.client.OrderServiceClient;
+import com.org.paymentservice.client.OrderServiceClient.OrderTotal;
+import com.org.paymentservice.dto.ReconciliationRequest;
+import com.org.paymentservice.exception.InvalidRequestException;
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.ReconciliationPartition;
+import com.org.paymentservice.model.ReconciliationRun;
+import com.org.paymentservice.model.ReconciliationStatus;
+import com.org.paymentservice.repository.PaymentRepository;
+import com.org.paymentservice.repository.ReconciliationDiscrepancyRepository;
+import com.org.paymentservice.repository.ReconciliationPartitionRepository;
+import com.org.paymentservice.repository.ReconciliationRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReconciliationServiceTest {
+
+    private final ReconciliationRunRepository runRepository = mock(ReconciliationRunRepository.class);
+    private final ReconciliationPartitionRepository partitionRepository = mock(ReconciliationPartitionRepository.class);
+    private final OrderServiceClient orderServiceClient = mock(OrderServiceClient.class);
+
+    private ReconciliationService service;
+    private ReconciliationRun run;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReconciliationService(runRepository, partitionRepository, mock(ReconciliationDiscrepancyRepository.class),
+                mock(PaymentRepository.class), orderServiceClient, mock(PaymentArchive.class),
+                mock(PlatformTransactionManager.class), 1000, 2, 100_000);
+        run = new ReconciliationRun();
+        run.setId(7L);
+        run.setFromOrderId(0);
+        run.setToOrderId(3000);
+        run.setPartitionSize(1000);
+        when(runRepository.findById(7L)).thenReturn(Optional.of(run));
+        when(runRepository.save(any(ReconciliationRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void resume_shouldSkipFinishedPartitionsAndRecordProgressOfTheRest() {
+        run.setStatus(ReconciliationStatus.FAILED);
+        run.setProcessedOrderIds(1000);
+        when(partitionRepository.findByRunId(7L)).thenReturn(List.of(partition(1000, 2000)));
+        when(orderServiceClient.fetchOrderTotals(0, 1000)).thenReturn(List.of(new OrderTotal(5, Money.of("10.00"))));
+
+        assertEquals("RUNNING", service.resume(7L).getStatus());
+
+        verify(runRepository, timeout(5000).times(2)).save(run);
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        verify(orderServiceClient).fetchOrderTotals(0, 1000);
+        verify(orderServiceClient).fetchOrderTotals(2000, 3000);
+        verify(orderServiceClient, never()).fetchOrderTotals(1000, 2000);
+        // The missing payment for order 5 is the only discrepancy.
+        verify(runRepository).addProgress(7L, 1000, 1);
+        verify(runRepository).addProgress(7L, 1000, 0);
+        assertEquals(3000, service.getRun(7L).getTotalOrderIds());
+    }
+
+    @Test
+    void shutdown_shouldLeaveAnInterruptedRunRunningForTheNextStart() throws Exception {
+        run.setStatus(ReconciliationStatus.RUNNING);
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(orderServiceClient.fetchOrderTotals(anyLong(), anyLong())).thenAnswer(invocation -> {
+            fetching.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("I/O error: interrupted");
+        });
+
+        when(runRepository.findByStatus(ReconciliationStatus.RUNNING)).thenReturn(List.of(run));
+
+        service.resumeInterruptedRuns();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        service.shutdown();
+        released.countDown();
+
+        verify(runRepository, after(500).never()).save(any(ReconciliationRun.class));
+        assertEquals(ReconciliationStatus.RUNNING, run.getStatus());
+    }
+
+    @Test
+    void start_shouldRejectAnEmptyRange() {
+        ReconciliationRequest request = new ReconciliationRequest();
+        request.setFromOrderId(10L);
+        request.setToOrderId(10L);
+
+        assertThrows(InvalidRequestException.class, () -> service.start(request));
+        verify(runRepository, never()).save(any(ReconciliationRun.class));
+    }
+
+    @Test
+    void start_shouldRejectARangeWiderThanTheMaximumSpan() {
+        ReconciliationRequest request = new ReconciliationRequest();
+        request.setFromOrderId(0L);
+        request.setToOrderId(100_001L);
+
+        assertThrows(InvalidRequestException.class, () -> service.start(request));
+        verify(runRepository, never()).save(any(ReconciliationRun.class));
+    }
+
+    private static ReconciliationPartition partition(long from, long to) {
+        ReconciliationPartition partition = new ReconciliationPartition();
+        partition.setRunId(7L);
+        partition.setFromOrderId(from);
+        partition.setToOrderId(to);
+        return partition;
+    }
+}
@@ -0,0 +1,55 @@
+package com.org.paymentservice.service;
+
+import com.org.paymentservice.exception.PaymentGatewayBusyException;
+import com.org.paymentservice.model.Payment;
+import com.org.paymentservice.repository.PaymentStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StalePaymentSweeperTest {
+
+    private final PaymentStore store = mock(PaymentStore.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StalePaymentSweeper sweeper = new StalePaymentSweeper(store, paymentService, meterRegistry, Duration.ofMinutes(2), 10);
+
+    @Test
+    void sweep_shouldRecoverPaymentsChargedBeforeTheCutoff_andStopWhenGatewayIsFull() {
+        Payment first = payment("order-1");
+        Payment second = payment("order-2");
+        Payment third = payment("order-3");
+        when(store.findStalePending(any(), eq(10))).thenReturn(List.of(first, second, third));
+        when(paymentService.recover(first)).thenReturn(CompletableFuture.completedFuture("recharged"));
+        when(paymentService.recover(second)).thenThrow(new PaymentGatewayBusyException("Payment gateway is at capacity", 1));
+
+        LocalDateTime before = LocalDateTime.now();
+        sweeper.sweep();
+
+        verify(store).findStalePending(argThat(cutoff ->
+                !cutoff.isAfter(before.minusMinutes(2).plusSeconds(1)) && cutoff.isAfter(before.minusMinutes(3))), eq(10));
+        verify(paymentService, never()).recover(third);
+        assertEquals(1.0, meterRegistry.get("payments.recovery.outcomes").tag("outcome", "recharged").counter().count());
+        assertTrue(meterRegistry.find("payments.recovery.outcomes").tag("outcome", "unresolved").counters().isEmpty());
+    }
+
+    private static Payment payment(String orderId) {
+        Payment payment = new Payment();
+        payment.setOrderId(orderId);
+        return payment;
+    }
+}
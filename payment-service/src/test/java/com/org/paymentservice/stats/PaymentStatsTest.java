@@ -0,0 +1,73 @@
+package com.org.paymentservice.stats;
+
+import com.org.paymentservice.dto.MethodStatsResponse;
+import com.org.paymentservice.dto.PaymentStatsResponse;
+import com.org.paymentservice.dto.StatusStatsResponse;
+import com.org.paymentservice.model.Money;
+import com.org.paymentservice.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentStatsTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final PaymentStats stats = new PaymentStats(Duration.ofSeconds(60), 60, now::get);
+
+    @Test
+    void snapshot_shouldAggregateByMethodAndStatus() {
+        for (int i = 1; i <= 100; i++) {
+            stats.record("CARD", PaymentStatus.PAID, Money.ofMinor(i * 100));
+        }
+        stats.record("CARD", PaymentStatus.FAILED, Money.of("5.00"));
+        stats.record("WALLET", PaymentStatus.PENDING, Money.of("1.00"));
+
+        PaymentStatsResponse snapshot = stats.snapshot();
+
+        assertEquals(60, snapshot.getWindowSeconds());
+        assertEquals(2, snapshot.getMethods().size());
+        MethodStatsResponse card = snapshot.getMethods().get(0);
+        assertEquals("CARD", card.getMethod());
+        assertEquals(100.0 / 101, card.getSuccessRatio(), 1e-9);
+        StatusStatsResponse paid = card.getByStatus().get("PAID");
+        assertEquals(100, paid.getCount());
+        assertEquals(Money.of("5050.00"), paid.getTotalAmount());
+        assertWithin(Money.of("50.00"), paid.getP50());
+        assertWithin(Money.of("99.00"), paid.getP99());
+        assertNull(snapshot.getMethods().get(1).getSuccessRatio());
+    }
+
+    @Test
+    void snapshot_shouldDropBucketsOutsideTheWindow() {
+        stats.record("CARD", PaymentStatus.PAID, Money.of("10.00"));
+        now.addAndGet(30_000);
+        stats.record("CARD", PaymentStatus.PAID, Money.of("20.00"));
+        assertEquals(2, stats.snapshot().getMethods().get(0).getByStatus().get("PAID").getCount());
+
+        now.addAndGet(45_000);
+        StatusStatsResponse paid = stats.snapshot().getMethods().get(0).getByStatus().get("PAID");
+        assertEquals(1, paid.getCount());
+        assertEquals(Money.of("20.00"), paid.getTotalAmount());
+
+        now.addAndGet(60_000);
+        assertTrue(stats.snapshot().getMethods().isEmpty());
+    }
+
+    @Test
+    void slots_shouldCoverEveryAmountWithBoundedError() {
+        for (long v : new long[]{0, 1, 7, 8, 9, 999, 123_456, Long.MAX_VALUE}) {
+            long approx = PaymentStats.valueOf(PaymentStats.slotOf(v));
+            assertTrue(Math.abs(approx - v) <= v / 8 + 1, v + " -> " + approx);
+        }
+    }
+
+    // Percentiles are accurate to one histogram slot, an eighth of the value.
+    private static void assertWithin(Money expected, Money actual) {
+        long tolerance = expected.getMinorUnits() / 8;
+        assertTrue(Math.abs(expected.getMinorUnits() - actual.getMinorUnits()) <= tolerance,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
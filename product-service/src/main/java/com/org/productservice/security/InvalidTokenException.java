@@ -0,0 +1,7 @@
+package com.org.productservice.security;
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
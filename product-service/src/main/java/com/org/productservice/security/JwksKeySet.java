@@ -0,0 +1,139 @@
+package com.org.productservice.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// auth-service's published verification keys, held in memory and refreshed in the background at
+// the interval its Cache-Control max-age advertises. Verifying a token never calls auth-service:
+// a token naming a key that is not held is rejected at once, and only prompts a rate-limited
+// refresh in the background. Rotation itself is covered by auth-service publishing its next key early.
+// order-service, payment-service and product-service each carry a copy of this package; keep them in step.
+public class JwksKeySet {
+    private static final Logger log = LoggerFactory.getLogger(JwksKeySet.class);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final RestClient restClient;
+    private final Duration defaultRefreshInterval;
+    private final Duration retryInterval;
+    private final Duration minRefetchInterval;
+    private final ScheduledExecutorService scheduler;
+    // System.nanoTime() from which an unknown key id may trigger the next refetch.
+    private final AtomicLong nextRefetchAt = new AtomicLong(System.nanoTime());
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    public JwksKeySet(RestClient restClient, Duration defaultRefreshInterval, Duration retryInterval,
+                      Duration minRefetchInterval) {
+        this.restClient = restClient;
+        this.defaultRefreshInterval = defaultRefreshInterval;
+        this.retryInterval = retryInterval;
+        this.minRefetchInterval = minRefetchInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("jwks-refresh-"));
+    }
+
+    // Fetches on the starting thread so the filter never serves before keys are held; the client's
+    // connect and read timeouts bound the wait. An unreachable auth-service does not fail startup:
+    // the refresh retries on its schedule.
+    public void start() {
+        schedule(load());
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // A miss queues a refresh at most once per min-refetch-interval across all callers, so tokens
+    // naming made-up key ids can neither hold request threads nor flood auth-service with calls.
+    public Optional<PublicKey> find(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null && claimRefetch() && !scheduler.isShutdown()) {
+            scheduler.execute(this::load);
+        }
+        return Optional.ofNullable(key);
+    }
+
+    private boolean claimRefetch() {
+        long now = System.nanoTime();
+        long next = nextRefetchAt.get();
+        return now - next >= 0 && nextRefetchAt.compareAndSet(next, now + minRefetchInterval.toNanos());
+    }
+
+    void refresh() {
+        schedule(load());
+    }
+
+    private void schedule(Duration delay) {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Keeps serving the last key set it fetched when auth-service is unreachable, and retries sooner.
+    private Duration load() {
+        try {
+            ResponseEntity<JsonWebKeySet> response = restClient.get().retrieve().toEntity(JsonWebKeySet.class);
+            keys = toPublicKeys(response.getBody());
+            return maxAge(response.getHeaders()).filter(maxAge -> maxAge.compareTo(retryInterval) > 0)
+                    .orElse(defaultRefreshInterval);
+        } catch (RuntimeException | GeneralSecurityException e) {
+            log.warn("Could not refresh the auth-service key set, keeping {} known keys", keys.size(), e);
+            return retryInterval;
+        }
+    }
+
+    private static Map<String, PublicKey> toPublicKeys(JsonWebKeySet keySet) throws GeneralSecurityException {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        for (JsonWebKey key : keySet.keys()) {
+            if ("RSA".equals(key.kty()) && key.kid() != null) {
+                publicKeys.put(key.kid(), keyFactory.generatePublic(
+                        new RSAPublicKeySpec(unsigned(key.n()), unsigned(key.e()))));
+            }
+        }
+        return Map.copyOf(publicKeys);
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+
+    private static Optional<Duration> maxAge(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Optional.of(Duration.ofSeconds(Long.parseLong(matcher.group(1)))) : Optional.empty();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record JsonWebKeySet(List<JsonWebKey> keys) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record JsonWebKey(String kty, String kid, String n, String e) {
+    }
+}
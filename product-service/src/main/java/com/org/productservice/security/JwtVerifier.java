@@ -0,0 +1,75 @@
+package com.org.productservice.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+// Checks an auth-service token locally: RS256 signature against the key named by its kid, then
+// expiry with a small allowance for clock skew. Other algorithms are rejected outright.
+public class JwtVerifier {
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final JwksKeySet keySet;
+    private final ObjectMapper objectMapper;
+    private final Duration clockSkew;
+    private final Clock clock;
+
+    public JwtVerifier(JwksKeySet keySet, ObjectMapper objectMapper, Duration clockSkew, Clock clock) {
+        this.keySet = keySet;
+        this.objectMapper = objectMapper;
+        this.clockSkew = clockSkew;
+        this.clock = clock;
+    }
+
+    public Map<String, Object> verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        Map<String, Object> header = decodeJson(parts[0]);
+        if (!"RS256".equals(header.get("alg"))) {
+            throw new InvalidTokenException("Unsupported signing algorithm: " + header.get("alg"));
+        }
+        PublicKey key = keySet.find(String.valueOf(header.get("kid")))
+                .orElseThrow(() -> new InvalidTokenException("Unknown signing key: " + header.get("kid")));
+        if (!signatureMatches(key, parts)) {
+            throw new InvalidTokenException("Invalid token signature");
+        }
+
+        Map<String, Object> claims = decodeJson(parts[1]);
+        if (!(claims.get("exp") instanceof Number exp)
+                || clock.instant().minus(clockSkew).getEpochSecond() >= exp.longValue()) {
+            throw new InvalidTokenException("Token expired");
+        }
+        return claims;
+    }
+
+    private static boolean signatureMatches(PublicKey key, String[] parts) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update((parts[0] + '.' + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Map<String, Object> decodeJson(String part) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(part), JSON_OBJECT);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed token");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.org.productservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class JwksKeySetTest {
+
+    private static final String JWKS_URI = "http://auth.test/.well-known/jwks.json";
+
+    private MockRestServiceServer server;
+    private JwksKeySet keySet;
+    private RSAPublicKey current;
+    private RSAPublicKey rotated;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        current = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        rotated = (RSAPublicKey) generator.generateKeyPair().getPublic();
+
+        RestClient.Builder builder = RestClient.builder().baseUrl(JWKS_URI);
+        server = MockRestServiceServer.bindTo(builder).build();
+        keySet = new JwksKeySet(builder.build(), Duration.ofMinutes(5), Duration.ofSeconds(10), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keySet.stop();
+    }
+
+    @Test
+    void startHoldsTheKeySetBeforeReturning() {
+        server.expect(once(), requestTo(JWKS_URI)).andRespond(jwks(jwk("current", current)));
+
+        keySet.start();
+
+        assertEquals(current, keySet.find("current").orElseThrow());
+        server.verify();
+    }
+
+    @Test
+    void unknownKeyIdIsRejectedAtOnceAndRefreshesInTheBackgroundAtMostOncePerInterval() throws Exception {
+        server.expect(once(), requestTo(JWKS_URI)).andRespond(jwks(jwk("current", current)));
+        server.expect(once(), requestTo(JWKS_URI)).andRespond(jwks(jwk("current", current) + ',' + jwk("rotated", rotated)));
+        keySet.start();
+
+        assertTrue(keySet.find("rotated").isEmpty());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (keySet.find("rotated").isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(rotated, keySet.find("rotated").orElseThrow());
+
+        assertTrue(keySet.find("made-up").isEmpty());
+        Thread.sleep(100);
+        server.verify();
+    }
+
+    private static ResponseCreator jwks(String keys) {
+        return withSuccess("{\"keys\":[" + keys + "]}", MediaType.APPLICATION_JSON);
+    }
+
+    private static String jwk(String kid, RSAPublicKey key) {
+        return "{\"kty\":\"RSA\",\"kid\":\"" + kid + "\",\"n\":\"" + encode(key.getModulus())
+                + "\",\"e\":\"" + encode(key.getPublicExponent()) + "\"}";
+    }
+
+    private static String encode(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+    }
+}